@@ -22,9 +22,11 @@
 
 package pascal.taie.analysis.dataflow.analysis;
 
+import pascal.taie.analysis.dataflow.fact.BitSetFact;
 import pascal.taie.analysis.dataflow.fact.SetFact;
 import pascal.taie.analysis.graph.cfg.CFG;
 import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.IR;
 import pascal.taie.ir.exp.LValue;
 import pascal.taie.ir.exp.RValue;
 import pascal.taie.ir.exp.Var;
@@ -41,6 +43,11 @@ public class LiveVariableAnalysis extends
 
     public static final String ID = "livevar";
 
+    /**
+     * Key of the {@link GenKill} sets cached on the IR.
+     */
+    private static final String GEN_KILL = "livevar.gen-kill";
+
     public LiveVariableAnalysis(AnalysisConfig config) {
         super(config);
     }
@@ -54,7 +61,7 @@ public class LiveVariableAnalysis extends
     public SetFact<Var> newBoundaryFact(CFG<Stmt> cfg) {
         // DONE - finish me
         // 返回个空的就行 不用那么花里胡哨的
-        return new SetFact<>();
+        return newVarSet(cfg.getIR());
 //        Stmt entry = cfg.getEntry();
 //        SetFact<Var> boundary = new SetFact<>();
 //        Optional<LValue> listOfDef = entry.getDef();
@@ -69,8 +76,21 @@ public class LiveVariableAnalysis extends
 
     @Override
     public SetFact<Var> newInitialFact() {
-        // DONE - finish me
-        return new SetFact<>();
+        // without a CFG, the variables of the IR are unknown, and the fact
+        // adopts them when the first fact of a CFG is merged into it
+        return new BitSetFact<>();
+    }
+
+    @Override
+    public SetFact<Var> newInitialFact(CFG<Stmt> cfg) {
+        return newVarSet(cfg.getIR());
+    }
+
+    /**
+     * @return an empty bit-vector fact over the variables of given IR.
+     */
+    private static BitSetFact<Var> newVarSet(IR ir) {
+        return new BitSetFact<>(ir::getVar, ir.getVars().size());
     }
 
     @Override
@@ -79,6 +99,22 @@ public class LiveVariableAnalysis extends
         target.union(fact);
     }
 
+    @Override
+    public boolean transferNode(CFG<Stmt> cfg, Stmt stmt,
+                                SetFact<Var> in, SetFact<Var> out) {
+        // the entry/exit nodes of the CFG are not part of the IR
+        if (!cfg.isEntry(stmt) && !cfg.isExit(stmt)
+                && in instanceof BitSetFact<Var> bitIn
+                && out instanceof BitSetFact<Var> bitOut) {
+            GenKill genKill = cfg.getIR().getResult(GEN_KILL,
+                    () -> GenKill.of(cfg.getIR()));
+            int i = stmt.getIndex();
+            // IN[B] = use_B U (OUT[B] - def_B), computed word by word
+            return bitIn.setGenKill(genKill.uses[i], bitOut, genKill.defs[i]);
+        }
+        return transferNode(stmt, in, out);
+    }
+
     @Override
     public boolean transferNode(Stmt stmt, SetFact<Var> in, SetFact<Var> out) {
         // 这里是引用传递，不能乱改
@@ -92,16 +128,13 @@ public class LiveVariableAnalysis extends
             }
         }
 
-        // Get the right values of the statement
+        // Get the right values of the statement, union use_B
         List<RValue> listR =  stmt.getUses();
-        SetFact<Var> use = new SetFact<>();
         for(RValue r : listR){
             if(r instanceof Var){
-                use.add((Var) r);
+                oldOut.add((Var) r);
             }
         }
-        // union use_B
-        oldOut.union(use);
 
         // if change
         if(oldOut.equals(in)){
@@ -112,4 +145,39 @@ public class LiveVariableAnalysis extends
             return true;
         }
     }
+
+    /**
+     * Variables defined ({@code defs}) and used ({@code uses}) by each
+     * statement of an IR, indexed by {@link Stmt#getIndex()}.
+     */
+    private record GenKill(BitSetFact<Var>[] defs, BitSetFact<Var>[] uses) {
+
+        private static GenKill of(IR ir) {
+            List<Stmt> stmts = ir.getStmts();
+            @SuppressWarnings("unchecked")
+            BitSetFact<Var>[] defs = new BitSetFact[stmts.size()];
+            @SuppressWarnings("unchecked")
+            BitSetFact<Var>[] uses = new BitSetFact[stmts.size()];
+            // statements that define (use) no variables share this empty set
+            BitSetFact<Var> none = newVarSet(ir);
+            for (Stmt stmt : stmts) {
+                int i = stmt.getIndex();
+                defs[i] = none;
+                uses[i] = none;
+                if (stmt.getDef().orElse(null) instanceof Var def) {
+                    defs[i] = newVarSet(ir);
+                    defs[i].add(def);
+                }
+                for (RValue use : stmt.getUses()) {
+                    if (use instanceof Var var) {
+                        if (uses[i] == none) {
+                            uses[i] = newVarSet(ir);
+                        }
+                        uses[i].add(var);
+                    }
+                }
+            }
+            return new GenKill(defs, uses);
+        }
+    }
 }
@@ -0,0 +1,403 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.fact;
+
+import pascal.taie.util.Indexable;
+import pascal.taie.util.collection.Streams;
+
+import java.util.Arrays;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Set-like data-flow facts backed by a bit vector.
+ * <p>
+ * Each element occupies the bit at its {@link Indexable#getIndex() index},
+ * e.g., for the variables of an IR, the bit at {@code v.getIndex()}.
+ * Union, intersection, difference and equality against another
+ * {@link BitSetFact} are carried out on whole {@code long} words, which makes
+ * this class a good fit for gen/kill analyses over a fixed, densely indexed
+ * universe such as the variables of a method.
+ * <p>
+ * All facts that are combined with each other must share the same universe,
+ * i.e., the same mapping from indexes to elements. Combining a
+ * {@link BitSetFact} with a plain {@link SetFact} (in either direction)
+ * is supported, but falls back to element-wise operations.
+ * <p>
+ * A fact created without a universe (see {@link #BitSetFact()}) remembers
+ * the elements added to it, and adopts the universe of the first
+ * {@link BitSetFact} that is merged into it.
+ *
+ * @param <E> type of elements
+ */
+public class BitSetFact<E extends Indexable> extends SetFact<E> {
+
+    private static final int ADDRESS_BITS_PER_WORD = 6;
+
+    private static final long[] EMPTY_WORDS = {};
+
+    private static final Object[] NO_ELEMENTS = {};
+
+    /**
+     * Maps indexes back to the elements of the universe,
+     * or {@code null} if the universe is not known yet.
+     */
+    private IntFunction<E> elements;
+
+    /**
+     * Elements added while the universe is unknown, indexed by their indexes.
+     */
+    private Object[] known;
+
+    private long[] words;
+
+    /**
+     * Creates an empty fact whose universe is not known yet.
+     */
+    public BitSetFact() {
+        this(null, EMPTY_WORDS);
+    }
+
+    /**
+     * @param elements the mapping from indexes to elements, e.g., {@code ir::getVar}
+     * @param capacity the number of elements in the universe. The fact grows
+     *                 automatically if an element with a larger index is added.
+     */
+    public BitSetFact(IntFunction<E> elements, int capacity) {
+        this(elements, capacity > 0 ? new long[wordIndex(capacity - 1) + 1] : EMPTY_WORDS);
+    }
+
+    private BitSetFact(IntFunction<E> elements, long[] words) {
+        this.elements = elements;
+        this.known = NO_ELEMENTS;
+        this.words = words;
+    }
+
+    @SuppressWarnings("unchecked")
+    private E element(int index) {
+        return elements != null ? elements.apply(index) : (E) known[index];
+    }
+
+    /**
+     * Records {@code e} if the universe of this fact is not known yet.
+     */
+    private void remember(E e) {
+        if (elements == null) {
+            int i = e.getIndex();
+            if (known.length <= i) {
+                known = Arrays.copyOf(known, Math.max(2 * known.length, i + 1));
+            }
+            known[i] = e;
+        }
+    }
+
+    /**
+     * Adopts the universe of {@code other} if this fact has none yet.
+     */
+    private void adoptUniverse(BitSetFact<E> other) {
+        if (elements == null) {
+            if (other.elements != null) {
+                elements = other.elements;
+                known = NO_ELEMENTS;
+            } else {
+                Object[] otherKnown = other.known;
+                if (known.length < otherKnown.length) {
+                    known = Arrays.copyOf(known, otherKnown.length);
+                }
+                for (int i = 0; i < otherKnown.length; ++i) {
+                    if (otherKnown[i] != null) {
+                        known[i] = otherKnown[i];
+                    }
+                }
+            }
+        }
+    }
+
+    private static int wordIndex(int bitIndex) {
+        return bitIndex >> ADDRESS_BITS_PER_WORD;
+    }
+
+    private void ensureCapacity(int wordsRequired) {
+        if (words.length < wordsRequired) {
+            words = Arrays.copyOf(words, Math.max(2 * words.length, wordsRequired));
+        }
+    }
+
+    /**
+     * @return index of the first set bit at or after {@code from}, or -1 if none.
+     */
+    private int nextSetBit(int from) {
+        int u = wordIndex(from);
+        if (u >= words.length) {
+            return -1;
+        }
+        long word = words[u] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                return (u << ADDRESS_BITS_PER_WORD) + Long.numberOfTrailingZeros(word);
+            }
+            if (++u == words.length) {
+                return -1;
+            }
+            word = words[u];
+        }
+    }
+
+    private IntStream indexes() {
+        return IntStream.iterate(nextSetBit(0), i -> i >= 0, i -> nextSetBit(i + 1));
+    }
+
+    @Override
+    public boolean contains(E e) {
+        int i = e.getIndex();
+        int u = wordIndex(i);
+        return u < words.length && (words[u] & (1L << i)) != 0;
+    }
+
+    @Override
+    public boolean add(E e) {
+        int i = e.getIndex();
+        int u = wordIndex(i);
+        ensureCapacity(u + 1);
+        remember(e);
+        long old = words[u];
+        words[u] = old | (1L << i);
+        return words[u] != old;
+    }
+
+    @Override
+    public boolean remove(E e) {
+        int i = e.getIndex();
+        int u = wordIndex(i);
+        if (u >= words.length) {
+            return false;
+        }
+        long old = words[u];
+        words[u] = old & ~(1L << i);
+        return words[u] != old;
+    }
+
+    @Override
+    public boolean removeIf(Predicate<E> filter) {
+        boolean changed = false;
+        for (int i = nextSetBit(0); i >= 0; i = nextSetBit(i + 1)) {
+            if (filter.test(element(i))) {
+                words[wordIndex(i)] &= ~(1L << i);
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean union(SetFact<E> other) {
+        if (other instanceof BitSetFact<E> that) {
+            adoptUniverse(that);
+            long[] otherWords = that.words;
+            ensureCapacity(otherWords.length);
+            long changed = 0;
+            for (int u = 0; u < otherWords.length; ++u) {
+                long old = words[u];
+                words[u] = old | otherWords[u];
+                changed |= words[u] ^ old;
+            }
+            return changed != 0;
+        } else {
+            return other.stream()
+                    .map(this::add)
+                    .reduce(false, Boolean::logicalOr);
+        }
+    }
+
+    @Override
+    public BitSetFact<E> unionWith(SetFact<E> other) {
+        BitSetFact<E> result = copy();
+        result.union(other);
+        return result;
+    }
+
+    @Override
+    public boolean intersect(SetFact<E> other) {
+        if (other instanceof BitSetFact<E> that) {
+            long[] otherWords = that.words;
+            long changed = 0;
+            for (int u = 0; u < words.length; ++u) {
+                long old = words[u];
+                words[u] = u < otherWords.length ? old & otherWords[u] : 0;
+                changed |= words[u] ^ old;
+            }
+            return changed != 0;
+        } else {
+            return removeIf(e -> !other.contains(e));
+        }
+    }
+
+    @Override
+    public BitSetFact<E> intersectWith(SetFact<E> other) {
+        BitSetFact<E> result = copy();
+        result.intersect(other);
+        return result;
+    }
+
+    @Override
+    public boolean removeAll(SetFact<E> other) {
+        if (other instanceof BitSetFact<E> that) {
+            long[] otherWords = that.words;
+            int n = Math.min(words.length, otherWords.length);
+            long changed = 0;
+            for (int u = 0; u < n; ++u) {
+                long old = words[u];
+                words[u] = old & ~otherWords[u];
+                changed |= words[u] ^ old;
+            }
+            return changed != 0;
+        } else {
+            return removeIf(other::contains);
+        }
+    }
+
+    @Override
+    public void set(SetFact<E> other) {
+        if (other instanceof BitSetFact<E> that) {
+            adoptUniverse(that);
+            if (words.length < that.words.length) {
+                words = that.words.clone();
+            } else {
+                System.arraycopy(that.words, 0, words, 0, that.words.length);
+                Arrays.fill(words, that.words.length, words.length, 0);
+            }
+        } else {
+            super.set(other);
+        }
+    }
+
+    /**
+     * Sets this fact to {@code gen | (base & ~kill)} in place, i.e., applies
+     * a gen/kill transfer function to {@code base} and stores the result here.
+     * All three facts must share the universe of this fact.
+     *
+     * @return true if this fact changed, otherwise false.
+     */
+    public boolean setGenKill(BitSetFact<E> gen, BitSetFact<E> base,
+                              BitSetFact<E> kill) {
+        adoptUniverse(base);
+        long[] genWords = gen.words, baseWords = base.words, killWords = kill.words;
+        ensureCapacity(Math.max(genWords.length, baseWords.length));
+        long changed = 0;
+        for (int u = 0; u < words.length; ++u) {
+            long word = u < baseWords.length ? baseWords[u] : 0;
+            if (u < killWords.length) {
+                word &= ~killWords[u];
+            }
+            if (u < genWords.length) {
+                word |= genWords[u];
+            }
+            changed |= words[u] ^ word;
+            words[u] = word;
+        }
+        return changed != 0;
+    }
+
+    @Override
+    public BitSetFact<E> copy() {
+        BitSetFact<E> copy = new BitSetFact<>(elements, words.clone());
+        copy.known = known.length == 0 ? known : known.clone();
+        return copy;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(words, 0);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Stream<E> stream() {
+        return indexes().mapToObj(this::element);
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (long word : words) {
+            size += Long.bitCount(word);
+        }
+        return size;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o instanceof BitSetFact<?> that) {
+            long[] shorter = words, longer = that.words;
+            if (shorter.length > longer.length) {
+                shorter = that.words;
+                longer = words;
+            }
+            for (int u = 0; u < shorter.length; ++u) {
+                if (shorter[u] != longer[u]) {
+                    return false;
+                }
+            }
+            for (int u = shorter.length; u < longer.length; ++u) {
+                if (longer[u] != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (!(o instanceof SetFact<?> that)) {
+            return false;
+        }
+        // compare element-wise with other kinds of set facts
+        @SuppressWarnings("unchecked")
+        SetFact<E> other = (SetFact<E>) that;
+        return size() == other.size() && other.stream()
+                .allMatch(e -> e instanceof Indexable && contains(e));
+    }
+
+    @Override
+    public int hashCode() {
+        // consistent with Set.hashCode(), so that equal SetFacts
+        // have the same hash code
+        return stream().mapToInt(Object::hashCode).sum();
+    }
+
+    @Override
+    public String toString() {
+        return Streams.toString(stream());
+    }
+}
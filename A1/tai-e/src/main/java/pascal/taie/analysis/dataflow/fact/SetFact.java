@@ -29,6 +29,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Set;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
@@ -89,7 +90,7 @@ public class SetFact<E> {
      * @return true if this fact changed as a result of the call, otherwise false.
      */
     public boolean union(SetFact<E> other) {
-        return set.addAll(other.set);
+        return set.addAll(elementsOf(other));
     }
 
     /**
@@ -107,7 +108,7 @@ public class SetFact<E> {
      * @return true if this fact changed as a result of the call, otherwise false.
      */
     public boolean intersect(SetFact<E> other) {
-        return set.retainAll(other.set);
+        return set.retainAll(elementsOf(other));
     }
 
     /**
@@ -119,6 +120,15 @@ public class SetFact<E> {
         return result;
     }
 
+    /**
+     * Removes all elements of other fact from this fact.
+     *
+     * @return true if this fact changed as a result of the call, otherwise false.
+     */
+    public boolean removeAll(SetFact<E> other) {
+        return set.removeAll(elementsOf(other));
+    }
+
     /**
      * Sets the content of this set to the same as other set.
      */
@@ -161,7 +171,7 @@ public class SetFact<E> {
         if (!(o instanceof SetFact<?> that)) {
             return false;
         }
-        return set.equals(that.set);
+        return set.equals(elementsOf(that));
     }
 
     @Override
@@ -173,4 +183,14 @@ public class SetFact<E> {
     public String toString() {
         return CollectionUtils.toString(set);
     }
+
+    /**
+     * @return the elements of given fact. Subclasses may keep their
+     * elements elsewhere (e.g., {@link BitSetFact}), in which case
+     * the elements are collected from {@link #stream()}.
+     */
+    private static <T> Set<T> elementsOf(SetFact<T> fact) {
+        return fact.getClass() == SetFact.class ? fact.set :
+                fact.stream().collect(Collectors.toSet());
+    }
 }
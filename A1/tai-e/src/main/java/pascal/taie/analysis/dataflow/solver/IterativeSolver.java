@@ -28,6 +28,10 @@ import pascal.taie.analysis.dataflow.fact.SetFact;
 import pascal.taie.analysis.graph.cfg.CFG;
 import pascal.taie.ir.exp.Var;
 
+/**
+ * Iterative solver, which revisits all nodes in each round
+ * until no fact changes.
+ */
 class IterativeSolver<Node, Fact> extends Solver<Node, Fact> {
 
     public IterativeSolver(DataflowAnalysis<Node, Fact> analysis) {
@@ -36,7 +40,23 @@ class IterativeSolver<Node, Fact> extends Solver<Node, Fact> {
 
     @Override
     protected void doSolveForward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
-        throw new UnsupportedOperationException();
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (Node node : cfg.getNodes()) {
+                if (cfg.isEntry(node)) {
+                    continue;
+                }
+                // IN[B] = U OUT[P], P a predecessor of B
+                Fact in = result.getInFact(node);
+                for (Node pred : cfg.getPredsOf(node)) {
+                    analysis.meetInto(result.getOutFact(pred), in);
+                }
+                if (analysis.transferNode(cfg, node, in, result.getOutFact(node))) {
+                    changed = true;
+                }
+            }
+        }
     }
 
     @Override
@@ -52,7 +72,7 @@ class IterativeSolver<Node, Fact> extends Solver<Node, Fact> {
 
                 // if OUT hasn't been initialized yet.
                 if(result.getOutFact(node) == null){
-                    result.setOutFact(node, analysis.newInitialFact());
+                    result.setOutFact(node, analysis.newInitialFact(cfg));
                 }
                 for(Node no : cfg.getSuccsOf(node)){
                     // use meetInto function
@@ -63,7 +83,7 @@ class IterativeSolver<Node, Fact> extends Solver<Node, Fact> {
                 }
 
                 // continue if any changes
-                if(analysis.transferNode(node, result.getInFact(node), result.getOutFact(node))){
+                if(analysis.transferNode(cfg, node, result.getInFact(node), result.getOutFact(node))){
                     changed = true;
                 }
             }
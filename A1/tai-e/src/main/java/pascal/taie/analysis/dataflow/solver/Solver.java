@@ -25,7 +25,11 @@ package pascal.taie.analysis.dataflow.solver;
 import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
 import pascal.taie.analysis.dataflow.analysis.LiveVariableAnalysis;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.StmtDataflowResult;
 import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.config.AnalysisOptions;
+import pascal.taie.config.ConfigException;
+import pascal.taie.ir.stmt.Stmt;
 
 /**
  * Base class for data-flow analysis solver, which provides common
@@ -38,6 +42,12 @@ public abstract class Solver<Node, Fact> {
 
     protected final DataflowAnalysis<Node, Fact> analysis;
 
+    /**
+     * Whether to discard the in-facts after solving, controlled by
+     * option {@code drop-in-facts}.
+     */
+    private boolean dropInFacts;
+
     protected Solver(DataflowAnalysis<Node, Fact> analysis) {
         this.analysis = analysis;
     }
@@ -47,7 +57,38 @@ public abstract class Solver<Node, Fact> {
      */
     public static <Node, Fact> Solver<Node, Fact> makeSolver(
             DataflowAnalysis<Node, Fact> analysis) {
-        return new IterativeSolver<>(analysis);
+        return makeSolver(analysis, WorkListOrder.RPO);
+    }
+
+    /**
+     * Static factory method to create a new solver for given analysis,
+     * configured by the options of the analysis, i.e., {@code strategy},
+     * {@code worklist-order} and {@code drop-in-facts}.
+     * <p>
+     * Strategy {@code worklist} (the default) selects {@link WorkListSolver},
+     * and strategy {@code iterative} selects {@link IterativeSolver}, which
+     * ignores {@code worklist-order}.
+     */
+    public static <Node, Fact> Solver<Node, Fact> makeSolver(
+            DataflowAnalysis<Node, Fact> analysis, AnalysisOptions options) {
+        String strategy = options.getString("strategy");
+        Solver<Node, Fact> solver;
+        if (strategy == null || strategy.equals("worklist")) {
+            solver = makeSolver(analysis,
+                    WorkListOrder.of(options.getString("worklist-order")));
+        } else if (strategy.equals("iterative")) {
+            solver = new IterativeSolver<>(analysis);
+        } else {
+            throw new ConfigException("Unknown strategy: " + strategy
+                    + ", expected worklist or iterative");
+        }
+        solver.dropInFacts = options.getBooleanOrDefault("drop-in-facts", false);
+        return solver;
+    }
+
+    private static <Node, Fact> Solver<Node, Fact> makeSolver(
+            DataflowAnalysis<Node, Fact> analysis, WorkListOrder order) {
+        return new WorkListSolver<>(analysis, order);
     }
 
     /**
@@ -59,6 +100,9 @@ public abstract class Solver<Node, Fact> {
     public DataflowResult<Node, Fact> solve(CFG<Node> cfg) {
         DataflowResult<Node, Fact> result = initialize(cfg);
         doSolve(cfg, result);
+        if (dropInFacts) {
+            result.dropInFacts();
+        }
         return result;
     }
 
@@ -68,7 +112,7 @@ public abstract class Solver<Node, Fact> {
      * @return the initialized data-flow result
      */
     private DataflowResult<Node, Fact> initialize(CFG<Node> cfg) {
-        DataflowResult<Node, Fact> result = new DataflowResult<>();
+        DataflowResult<Node, Fact> result = newResult(cfg);
         if (analysis.isForward()) {
             initializeForward(cfg, result);
         } else {
@@ -77,19 +121,35 @@ public abstract class Solver<Node, Fact> {
         return result;
     }
 
+    /**
+     * @return a new empty data-flow result for given CFG, which is
+     * array-based if the nodes of the CFG are {@link Stmt}s.
+     */
+    @SuppressWarnings("unchecked")
+    private static <Node, Fact> DataflowResult<Node, Fact> newResult(CFG<Node> cfg) {
+        if (cfg.getEntry() instanceof Stmt) {
+            return (DataflowResult<Node, Fact>)
+                    new StmtDataflowResult<Fact>((CFG<Stmt>) cfg);
+        } else {
+            return new DataflowResult<>();
+        }
+    }
+
     protected void initializeForward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
-        throw new UnsupportedOperationException();
+        for (Node node : cfg) {
+            result.setInFact(node, analysis.newInitialFact(cfg));
+            result.setOutFact(node, cfg.isEntry(node) ?
+                    analysis.newBoundaryFact(cfg) : analysis.newInitialFact(cfg));
+        }
     }
 
     protected void initializeBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
-        // TODO - finish me
-        // result has been initialized ???
-//        result = new DataflowResult<>();
         for (Node node : cfg) {
             if (cfg.isExit(node)) {
                 result.setInFact(node, analysis.newBoundaryFact(cfg));
             } else {
-                result.setInFact(node, analysis.newInitialFact());
+                result.setInFact(node, analysis.newInitialFact(cfg));
+                result.setOutFact(node, analysis.newInitialFact(cfg));
             }
         }
     }
@@ -0,0 +1,265 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.ir.IR;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+import pascal.taie.util.graph.Graph;
+import pascal.taie.util.graph.ReverseGraph;
+import pascal.taie.util.graph.WeakTopologicalOrder;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Work-list of CFG nodes used by {@link WorkListSolver}.
+ * A node is queued at most once, i.e., adding a node which is
+ * already in the work-list has no effect.
+ *
+ * @param <Node> type of CFG nodes
+ */
+abstract class WorkList<Node> {
+
+    /**
+     * Keys of the WTOs cached in the IR.
+     */
+    private static final String FORWARD_WTO = "wto";
+
+    private static final String BACKWARD_WTO = "wto-backward";
+
+    /**
+     * Creates a work-list for given CFG, which initially contains all nodes.
+     *
+     * @param forward whether the work-list is used by a forward analysis
+     */
+    static <Node> WorkList<Node> make(
+            CFG<Node> cfg, WorkListOrder order, boolean forward) {
+        if (order == WorkListOrder.WTO) {
+            return new PriorityWorkList<>(getWTO(cfg, forward).getOrder());
+        }
+        return make(cfg, cfg.getEntry(), cfg.getExit(), order, forward);
+    }
+
+    /**
+     * @return the WTO of given CFG from its entry for forward analyses,
+     * or the WTO of the reverse CFG from its exit for backward analyses.
+     * The WTO is computed on the first request and then cached in the IR
+     * of the CFG, so that all analyses of a method share it.
+     */
+    static <Node> WeakTopologicalOrder<Node> getWTO(CFG<Node> cfg, boolean forward) {
+        String key = forward ? FORWARD_WTO : BACKWARD_WTO;
+        IR ir = cfg.getIR();
+        synchronized (ir) {
+            WeakTopologicalOrder<Node> wto = ir.getResult(key);
+            if (wto == null) {
+                wto = forward ?
+                        new WeakTopologicalOrder<>(cfg, cfg.getEntry()) :
+                        new WeakTopologicalOrder<>(new ReverseGraph<>(cfg), cfg.getExit());
+                ir.storeResult(key, wto);
+            }
+            return wto;
+        }
+    }
+
+    /**
+     * Creates a work-list for given control-flow graph with given entry
+     * and exit, which initially contains all nodes.
+     *
+     * @param forward whether the work-list is used by a forward analysis
+     */
+    static <Node> WorkList<Node> make(Graph<Node> graph, Node entry, Node exit,
+                                      WorkListOrder order, boolean forward) {
+        return switch (order) {
+            case FIFO -> new FIFOWorkList<>(graph.getNodes());
+            case RPO -> new PriorityWorkList<>(
+                    reversePostOrder(graph, entry, exit, forward));
+            case WTO -> new PriorityWorkList<>(forward ?
+                    new WeakTopologicalOrder<>(graph, entry).getOrder() :
+                    new WeakTopologicalOrder<>(new ReverseGraph<>(graph), exit).getOrder());
+        };
+    }
+
+    /**
+     * Adds a node to this work-list.
+     *
+     * @return true if the node was not in this work-list, otherwise false.
+     */
+    abstract boolean add(Node node);
+
+    void addAll(Collection<Node> nodes) {
+        nodes.forEach(this::add);
+    }
+
+    /**
+     * Removes and returns the next node of this work-list.
+     */
+    abstract Node poll();
+
+    abstract boolean isEmpty();
+
+    /**
+     * @return the nodes of given graph in postorder of a depth-first
+     * traversal from the entry, followed by the nodes unreachable from
+     * the entry (if any).
+     */
+    static <Node> List<Node> postOrder(Graph<Node> graph, Node entry) {
+        List<Node> order = new ArrayList<>(graph.getNumberOfNodes());
+        Set<Node> visited = Sets.newSet(graph.getNumberOfNodes());
+        Deque<Node> stack = new ArrayDeque<>();
+        Deque<Iterator<Node>> succs = new ArrayDeque<>();
+        visited.add(entry);
+        stack.push(entry);
+        succs.push(graph.getSuccsOf(entry).iterator());
+        while (!stack.isEmpty()) {
+            Iterator<Node> it = succs.peek();
+            if (it.hasNext()) {
+                Node succ = it.next();
+                if (visited.add(succ)) {
+                    stack.push(succ);
+                    succs.push(graph.getSuccsOf(succ).iterator());
+                }
+            } else {
+                order.add(stack.pop());
+                succs.pop();
+            }
+        }
+        for (Node node : graph) {
+            if (!visited.contains(node)) {
+                order.add(node);
+            }
+        }
+        return order;
+    }
+
+    /**
+     * @return the nodes of given graph in reverse postorder.
+     */
+    static <Node> List<Node> reversePostOrder(Graph<Node> graph, Node entry) {
+        List<Node> order = postOrder(graph, entry);
+        Collections.reverse(order);
+        return order;
+    }
+
+    /**
+     * @return the nodes of given control-flow graph in reverse postorder
+     * from its entry for forward analyses, or in reverse postorder of
+     * the reverse graph from its exit for backward analyses.
+     */
+    static <Node> List<Node> reversePostOrder(Graph<Node> graph, Node entry,
+                                              Node exit, boolean forward) {
+        return forward ?
+                reversePostOrder(graph, entry) :
+                reversePostOrder(new ReverseGraph<>(graph), exit);
+    }
+
+    private static class FIFOWorkList<Node> extends WorkList<Node> {
+
+        private final Queue<Node> queue = new ArrayDeque<>();
+
+        private final Set<Node> inQueue = Sets.newSet();
+
+        private FIFOWorkList(Collection<Node> nodes) {
+            addAll(nodes);
+        }
+
+        @Override
+        boolean add(Node node) {
+            if (inQueue.add(node)) {
+                queue.add(node);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        Node poll() {
+            Node node = queue.poll();
+            inQueue.remove(node);
+            return node;
+        }
+
+        @Override
+        boolean isEmpty() {
+            return queue.isEmpty();
+        }
+    }
+
+    /**
+     * Work-list which always yields the pending node that comes
+     * first in a given order.
+     */
+    private static class PriorityWorkList<Node> extends WorkList<Node> {
+
+        private final List<Node> order;
+
+        private final Map<Node, Integer> priorities;
+
+        /**
+         * The i-th bit is set if the i-th node in the order is pending.
+         */
+        private final BitSet pending;
+
+        private PriorityWorkList(List<Node> order) {
+            this.order = order;
+            this.priorities = Maps.newMap(order.size());
+            for (int i = 0; i < order.size(); ++i) {
+                priorities.put(order.get(i), i);
+            }
+            this.pending = new BitSet(order.size());
+            pending.set(0, order.size());
+        }
+
+        @Override
+        boolean add(Node node) {
+            int i = priorities.get(node);
+            if (pending.get(i)) {
+                return false;
+            }
+            pending.set(i);
+            return true;
+        }
+
+        @Override
+        Node poll() {
+            int i = pending.nextSetBit(0);
+            pending.clear(i);
+            return order.get(i);
+        }
+
+        @Override
+        boolean isEmpty() {
+            return pending.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.graph.cfg.CFG;
+
+/**
+ * Work-list solver, which only revisits the nodes whose
+ * neighbors' facts have changed. It solves both forward and
+ * backward problems.
+ */
+class WorkListSolver<Node, Fact> extends Solver<Node, Fact> {
+
+    private static final Logger logger = LogManager.getLogger(WorkListSolver.class);
+
+    private final WorkListOrder order;
+
+    WorkListSolver(DataflowAnalysis<Node, Fact> analysis, WorkListOrder order) {
+        super(analysis);
+        this.order = order;
+    }
+
+    @Override
+    protected void doSolveForward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
+        WorkList<Node> workList = WorkList.make(cfg, order, true);
+        int iterations = 0;
+        while (!workList.isEmpty()) {
+            Node node = workList.poll();
+            ++iterations;
+            if (cfg.isEntry(node)) {
+                // OUT[entry] is the boundary fact, which never changes
+                continue;
+            }
+            // IN[B] = U OUT[P], P a predecessor of B
+            Fact in = result.getInFact(node);
+            Fact out = result.getOutFact(node);
+            for (Node pred : cfg.getPredsOf(node)) {
+                analysis.meetInto(result.getOutFact(pred), in);
+            }
+            // OUT[B] changed, so IN of its successors may change as well
+            if (analysis.transferNode(cfg, node, in, out)) {
+                workList.addAll(cfg.getSuccsOf(node));
+            }
+        }
+        logIterations(cfg, iterations);
+    }
+
+    @Override
+    protected void doSolveBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
+        WorkList<Node> workList = WorkList.make(cfg, order, false);
+        int iterations = 0;
+        while (!workList.isEmpty()) {
+            Node node = workList.poll();
+            ++iterations;
+            if (cfg.isExit(node)) {
+                // IN[exit] is the boundary fact, which never changes
+                continue;
+            }
+            // OUT[B] = U IN[S], S a successor of B
+            Fact in = result.getInFact(node);
+            Fact out = result.getOutFact(node);
+            for (Node succ : cfg.getSuccsOf(node)) {
+                analysis.meetInto(result.getInFact(succ), out);
+            }
+            // IN[B] changed, so OUT of its predecessors may change as well
+            if (analysis.transferNode(cfg, node, in, out)) {
+                workList.addAll(cfg.getPredsOf(node));
+            }
+        }
+        logIterations(cfg, iterations);
+    }
+
+    private void logIterations(CFG<Node> cfg, int iterations) {
+        logger.debug("{} iterations ({} worklist, {} nodes) for {}",
+                iterations, order, cfg.getNumberOfNodes(), cfg.getMethod());
+    }
+}
@@ -0,0 +1,300 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.graph;
+
+import pascal.taie.util.collection.Maps;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Weak topological order (WTO) of a graph, computed by Bourdoncle's
+ * algorithm, see F. Bourdoncle, "Efficient chaotic iteration strategies
+ * with widenings", FMPA'93.
+ * <p>
+ * A WTO is a hierarchical ordering of the nodes, e.g., {@code 1 2 (3 4 5) 6},
+ * where each parenthesized <i>component</i> corresponds to a loop whose
+ * first node is the <i>head</i> of the loop. Every edge either goes forward
+ * in the order, or goes back to the head of an enclosing component.
+ *
+ * @param <N> type of nodes
+ */
+public class WeakTopologicalOrder<N> {
+
+    /**
+     * Top-level elements of this order.
+     */
+    private final List<Element<N>> elements;
+
+    /**
+     * Flattened order of all nodes.
+     */
+    private final List<N> order;
+
+    /**
+     * Computes the WTO of the nodes of given graph. The nodes reachable
+     * from {@code entry} come first, followed by the remaining nodes
+     * (if any) in the iteration order of the graph.
+     */
+    public WeakTopologicalOrder(Graph<N> graph, N entry) {
+        Builder<N> builder = new Builder<>(graph);
+        LinkedList<Element<N>> partition = new LinkedList<>();
+        builder.visit(entry, partition);
+        List<Element<N>> elements = new ArrayList<>(partition);
+        for (N node : graph) {
+            if (builder.dfn(node) == 0) {
+                partition.clear();
+                builder.visit(node, partition);
+                elements.addAll(partition);
+            }
+        }
+        this.elements = Collections.unmodifiableList(elements);
+        List<N> order = new ArrayList<>(graph.getNumberOfNodes());
+        elements.forEach(e -> e.flattenTo(order));
+        this.order = Collections.unmodifiableList(order);
+    }
+
+    /**
+     * @return the top-level elements of this order.
+     */
+    public List<Element<N>> getElements() {
+        return elements;
+    }
+
+    /**
+     * @return all nodes in this order, where each component is laid out
+     * as its head followed by its body.
+     */
+    public List<N> getOrder() {
+        return order;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (Element<N> e : elements) {
+            if (!sb.isEmpty()) {
+                sb.append(' ');
+            }
+            sb.append(e);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * An element of a WTO, i.e., either a single node, or a component
+     * consisting of a head and the (nested) elements of its body.
+     */
+    public static final class Element<N> {
+
+        private final N node;
+
+        /**
+         * Body of the component; null if this element is a single node.
+         */
+        private final List<Element<N>> body;
+
+        private Element(N node, List<Element<N>> body) {
+            this.node = node;
+            this.body = body;
+        }
+
+        /**
+         * @return the node of this element, which is the head of the
+         * component if this element is a component.
+         */
+        public N getNode() {
+            return node;
+        }
+
+        public boolean isComponent() {
+            return body != null;
+        }
+
+        /**
+         * @return the elements of the component body (the head excluded),
+         * or an empty list if this element is a single node.
+         */
+        public List<Element<N>> getBody() {
+            return body != null ? body : List.of();
+        }
+
+        private void flattenTo(List<N> order) {
+            order.add(node);
+            if (body != null) {
+                body.forEach(e -> e.flattenTo(order));
+            }
+        }
+
+        @Override
+        public String toString() {
+            if (body == null) {
+                return String.valueOf(node);
+            }
+            StringBuilder sb = new StringBuilder("(").append(node);
+            body.forEach(e -> sb.append(' ').append(e));
+            return sb.append(')').toString();
+        }
+    }
+
+    /**
+     * Implementation of Bourdoncle's algorithm. The recursion of the
+     * algorithm is simulated with an explicit stack of {@link Frame}s,
+     * as its depth grows with the length of the paths in the graph.
+     */
+    private static class Builder<N> {
+
+        private final Graph<N> graph;
+
+        /**
+         * Depth-first numbers of the nodes; 0 for unvisited nodes,
+         * and {@link Integer#MAX_VALUE} for the nodes already placed
+         * in the order.
+         */
+        private final Map<N, Integer> dfn;
+
+        private final Deque<N> stack = new ArrayDeque<>();
+
+        private int num = 0;
+
+        private Builder(Graph<N> graph) {
+            this.graph = graph;
+            this.dfn = Maps.newMap(graph.getNumberOfNodes());
+        }
+
+        private int dfn(N node) {
+            return dfn.getOrDefault(node, 0);
+        }
+
+        /**
+         * Visits the unvisited nodes reachable from given node, and adds
+         * the resulting elements to the front of given partition.
+         */
+        private void visit(N root, LinkedList<Element<N>> partition) {
+            Deque<Frame<N>> frames = new ArrayDeque<>();
+            frames.push(enter(root, partition));
+            while (!frames.isEmpty()) {
+                Frame<N> frame = frames.peek();
+                if (frame.succs.hasNext()) {
+                    N succ = frame.succs.next();
+                    if (dfn(succ) == 0) {
+                        frames.push(enter(succ, frame.isComponent() ?
+                                frame.body : frame.partition));
+                    } else if (!frame.isComponent()) {
+                        frame.meet(dfn(succ));
+                    }
+                    continue;
+                }
+                // all successors are done, return from the frame
+                frames.pop();
+                N node = frame.node;
+                if (frame.isComponent()) {
+                    frame.partition.addFirst(new Element<>(node,
+                            Collections.unmodifiableList(new ArrayList<>(frame.body))));
+                } else if (frame.head == dfn(node)) {
+                    dfn.put(node, Integer.MAX_VALUE);
+                    N n = stack.pop();
+                    if (frame.loop) {
+                        while (n != node) {
+                            dfn.put(n, 0);
+                            n = stack.pop();
+                        }
+                        // visit the body of the component, and return
+                        // the head once the component is done
+                        frames.push(new Frame<>(node, frame.partition,
+                                graph.getSuccsOf(node).iterator(),
+                                new LinkedList<>(), frame.head));
+                        continue;
+                    } else {
+                        frame.partition.addFirst(new Element<>(node, null));
+                    }
+                }
+                Frame<N> caller = frames.peek();
+                if (caller != null && !caller.isComponent()) {
+                    caller.meet(frame.head);
+                }
+            }
+        }
+
+        private Frame<N> enter(N node, LinkedList<Element<N>> partition) {
+            stack.push(node);
+            dfn.put(node, ++num);
+            return new Frame<>(node, partition,
+                    graph.getSuccsOf(node).iterator(), null, num);
+        }
+    }
+
+    /**
+     * State of an activation of {@code visit} (if {@link #body} is null)
+     * or {@code component} (otherwise) in Bourdoncle's algorithm.
+     */
+    private static class Frame<N> {
+
+        private final N node;
+
+        /**
+         * Partition which the resulting element is added to.
+         */
+        private final LinkedList<Element<N>> partition;
+
+        private final Iterator<N> succs;
+
+        /**
+         * Body of the component whose head is {@link #node}.
+         */
+        private final LinkedList<Element<N>> body;
+
+        /**
+         * Smallest depth-first number reached from the node so far.
+         */
+        private int head;
+
+        private boolean loop = false;
+
+        private Frame(N node, LinkedList<Element<N>> partition,
+                      Iterator<N> succs, LinkedList<Element<N>> body, int head) {
+            this.node = node;
+            this.partition = partition;
+            this.succs = succs;
+            this.body = body;
+            this.head = head;
+        }
+
+        private boolean isComponent() {
+            return body != null;
+        }
+
+        private void meet(int min) {
+            if (min <= head) {
+                head = min;
+                loop = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.fact;
+
+import org.junit.Test;
+import pascal.taie.util.Indexable;
+
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BitSetFactTest {
+
+    private record Element(int index) implements Indexable {
+
+        @Override
+        public int getIndex() {
+            return index;
+        }
+    }
+
+    /**
+     * Universe of the facts, larger than a word so that
+     * operations across word boundaries are covered.
+     */
+    private static final int SIZE = 150;
+
+    private static final Element[] ELEMENTS = new Element[SIZE];
+
+    static {
+        for (int i = 0; i < SIZE; ++i) {
+            ELEMENTS[i] = new Element(i);
+        }
+    }
+
+    private static final IntFunction<Element> UNIVERSE = i -> ELEMENTS[i];
+
+    /**
+     * Applies the same random operations to BitSetFacts and plain SetFacts,
+     * and checks that they always agree.
+     */
+    @Test
+    public void testAgainstSetFact() {
+        Random random = new Random(0);
+        for (int round = 0; round < 200; ++round) {
+            // start with small capacities, so that the facts have to grow
+            BitSetFact<Element> bits1 = new BitSetFact<>(UNIVERSE, random.nextInt(SIZE));
+            BitSetFact<Element> bits2 = new BitSetFact<>(UNIVERSE, random.nextInt(SIZE));
+            SetFact<Element> set1 = new SetFact<>();
+            SetFact<Element> set2 = new SetFact<>();
+            for (int step = 0; step < 100; ++step) {
+                Element e = ELEMENTS[random.nextInt(SIZE)];
+                switch (random.nextInt(8)) {
+                    case 0, 1 -> {
+                        assertEquals(set1.add(e), bits1.add(e));
+                        assertEquals(set2.add(e), bits2.add(e));
+                    }
+                    case 2 -> assertEquals(set1.remove(e), bits1.remove(e));
+                    case 3 -> assertEquals(set1.union(set2), bits1.union(bits2));
+                    case 4 -> assertEquals(set1.intersect(set2), bits1.intersect(bits2));
+                    case 5 -> assertEquals(set1.removeAll(set2), bits1.removeAll(bits2));
+                    case 6 -> assertEquals(set2.removeIf(x -> x.getIndex() % 3 == 0),
+                            bits2.removeIf(x -> x.getIndex() % 3 == 0));
+                    case 7 -> {
+                        set2.set(set1);
+                        bits2.set(bits1);
+                    }
+                }
+                assertAgree(set1, bits1);
+                assertAgree(set2, bits2);
+                assertEquals(set1.equals(set2), bits1.equals(bits2));
+            }
+        }
+    }
+
+    @Test
+    public void testMixedWithSetFact() {
+        BitSetFact<Element> bits = new BitSetFact<>(UNIVERSE, SIZE);
+        bits.add(ELEMENTS[1]);
+        bits.add(ELEMENTS[100]);
+        SetFact<Element> set = new SetFact<>();
+        set.add(ELEMENTS[2]);
+        assertTrue(set.union(bits));
+        assertEquals(3, set.size());
+        assertTrue(bits.union(set));
+        assertAgree(set, bits);
+        set.remove(ELEMENTS[1]);
+        assertTrue(bits.intersect(set));
+        assertAgree(set, bits);
+        assertTrue(set.removeAll(bits));
+        assertTrue(set.isEmpty());
+    }
+
+    @Test
+    public void testGenKill() {
+        Random random = new Random(1);
+        for (int round = 0; round < 200; ++round) {
+            BitSetFact<Element> gen = randomFact(random);
+            BitSetFact<Element> base = randomFact(random);
+            BitSetFact<Element> kill = randomFact(random);
+            BitSetFact<Element> bits = randomFact(random);
+            SetFact<Element> expected = base.copy();
+            expected.removeAll(kill);
+            expected.union(gen);
+            assertEquals(!expected.equals(bits), bits.setGenKill(gen, base, kill));
+            assertAgree(expected, bits);
+            assertFalse(bits.setGenKill(gen, base, kill));
+        }
+    }
+
+    @Test
+    public void testWithoutUniverse() {
+        BitSetFact<Element> bits = new BitSetFact<>();
+        assertTrue(bits.isEmpty());
+        bits.add(ELEMENTS[3]);
+        bits.add(ELEMENTS[70]);
+        SetFact<Element> set = new SetFact<>();
+        set.add(ELEMENTS[3]);
+        set.add(ELEMENTS[70]);
+        assertAgree(set, bits);
+        // merges another fact without universe
+        BitSetFact<Element> other = new BitSetFact<>();
+        other.add(ELEMENTS[100]);
+        set.add(ELEMENTS[100]);
+        assertTrue(bits.union(other));
+        assertAgree(set, bits);
+        // adopts the universe of a fact that has one
+        BitSetFact<Element> withUniverse = new BitSetFact<>(UNIVERSE, SIZE);
+        withUniverse.add(ELEMENTS[149]);
+        set.add(ELEMENTS[149]);
+        assertTrue(bits.union(withUniverse));
+        assertAgree(set, bits);
+        BitSetFact<Element> copy = new BitSetFact<>();
+        copy.set(withUniverse);
+        assertEquals(withUniverse, copy);
+        assertEquals(List.of(ELEMENTS[149]), copy.stream().toList());
+    }
+
+    private static BitSetFact<Element> randomFact(Random random) {
+        BitSetFact<Element> fact = new BitSetFact<>(UNIVERSE, random.nextInt(SIZE));
+        for (int i = random.nextInt(SIZE); i > 0; --i) {
+            fact.add(ELEMENTS[random.nextInt(SIZE)]);
+        }
+        return fact;
+    }
+
+    private static void assertAgree(SetFact<Element> set, BitSetFact<Element> bits) {
+        assertEquals(set, bits);
+        assertEquals(bits, set);
+        assertEquals(set.hashCode(), bits.hashCode());
+        assertEquals(set.size(), bits.size());
+        assertEquals(set.isEmpty(), bits.isEmpty());
+        assertEquals(set, bits.copy());
+        for (Element e : ELEMENTS) {
+            assertEquals(set.contains(e), bits.contains(e));
+        }
+    }
+}
@@ -49,6 +49,17 @@ public interface DataflowAnalysis<Node, Fact> {
      */
     Fact newInitialFact();
 
+    /**
+     * Solvers create initial facts via this method, so that analyses whose
+     * facts depend on the method being analyzed can size them accordingly.
+     * By default, it simply delegates to {@link #newInitialFact()}.
+     *
+     * @return new initial fact for non-boundary nodes of given CFG.
+     */
+    default Fact newInitialFact(CFG<Node> cfg) {
+        return newInitialFact();
+    }
+
     /**
      * Meets a fact into another (target) fact.
      * This function will be used to handle control-flow confluences.
@@ -64,6 +75,17 @@ public interface DataflowAnalysis<Node, Fact> {
      */
     boolean transferNode(Node node, Fact in, Fact out);
 
+    /**
+     * Solvers transfer nodes via this method, so that analyses can look up
+     * per-method data (e.g., precomputed gen/kill sets of the nodes).
+     * By default, it simply delegates to {@link #transferNode(Object, Object, Object)}.
+     *
+     * @return true if the transfer changed the out (in) fact, otherwise false.
+     */
+    default boolean transferNode(CFG<Node> cfg, Node node, Fact in, Fact out) {
+        return transferNode(node, in, out);
+    }
+
     /**
      * @return true if this analysis needs to perform transfer for given edge, otherwise false.
      */
@@ -26,7 +26,6 @@ import pascal.taie.analysis.dataflow.fact.MapFact;
 import pascal.taie.ir.exp.Var;
 
 import java.util.Collections;
-import java.util.Map;
 
 /**
  * Represents data facts of constant propagation, which maps variables
@@ -41,11 +40,11 @@ import java.util.Map;
 public class CPFact extends MapFact<Var, Value> {
 
     public CPFact() {
-        this(Collections.emptyMap());
+        super(Collections.emptyMap());
     }
 
-    private CPFact(Map<Var, Value> map) {
-        super(map);
+    private CPFact(CPFact fact) {
+        super(fact);
     }
 
     /**
@@ -71,6 +70,6 @@ public class CPFact extends MapFact<Var, Value> {
 
     @Override
     public CPFact copy() {
-        return new CPFact(this.map);
+        return new CPFact(this);
     }
 }
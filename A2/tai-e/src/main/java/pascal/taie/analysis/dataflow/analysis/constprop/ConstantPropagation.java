@@ -210,6 +210,11 @@ public class ConstantPropagation extends
 
     @Override
     public void meetInto(CPFact fact, CPFact target) {
+        if (target.isEmpty()) {
+            // UNDEF is the identity of meet, so just (lazily) copy fact
+            target.copyFrom(fact);
+            return;
+        }
         fact.forEach((var, value) -> {
             Value targetValue = meetValue(value, target.get(var));
             target.update(var, targetValue);
@@ -0,0 +1,89 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.fact;
+
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.ir.stmt.Stmt;
+
+/**
+ * {@link DataflowResult} for {@link Stmt}-based CFGs, which keeps the facts
+ * in arrays indexed by {@link Stmt#getIndex()} instead of hash maps.
+ * <p>
+ * The indexes of the statements of a CFG are dense, i.e., the statements of
+ * the IR are numbered from 0, and the entry and exit nodes take the next
+ * two indexes, so the arrays have no holes to speak of.
+ *
+ * @param <Fact> type of data-flow facts
+ */
+public class StmtDataflowResult<Fact> extends DataflowResult<Stmt, Fact> {
+
+    private Object[] inFacts;
+
+    private final Object[] outFacts;
+
+    /**
+     * Creates a result for the nodes of given CFG.
+     */
+    public StmtDataflowResult(CFG<Stmt> cfg) {
+        int size = cfg.getNodes()
+                .stream()
+                .mapToInt(Stmt::getIndex)
+                .max()
+                .orElse(-1) + 1;
+        inFacts = new Object[size];
+        outFacts = new Object[size];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Fact getInFact(Stmt stmt) {
+        return inFacts != null ? (Fact) inFacts[stmt.getIndex()] : null;
+    }
+
+    @Override
+    public void setInFact(Stmt stmt, Fact fact) {
+        if (inFacts != null) {
+            inFacts[stmt.getIndex()] = fact;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Fact getOutFact(Stmt stmt) {
+        return (Fact) outFacts[stmt.getIndex()];
+    }
+
+    @Override
+    public void setOutFact(Stmt stmt, Fact fact) {
+        outFacts[stmt.getIndex()] = fact;
+    }
+
+    /**
+     * Discards the in-facts. Afterwards, {@link #getInFact(Stmt)} always
+     * returns null and {@link #setInFact(Stmt, Object)} has no effect.
+     */
+    @Override
+    public void dropInFacts() {
+        inFacts = null;
+    }
+}
@@ -24,7 +24,10 @@ package pascal.taie.analysis.dataflow.solver;
 
 import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.StmtDataflowResult;
 import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.config.AnalysisOptions;
+import pascal.taie.ir.stmt.Stmt;
 
 /**
  * Base class for data-flow analysis solver, which provides common
@@ -37,6 +40,12 @@ public abstract class Solver<Node, Fact> {
 
     protected final DataflowAnalysis<Node, Fact> analysis;
 
+    /**
+     * Whether to discard the in-facts after solving, controlled by
+     * option {@code drop-in-facts}.
+     */
+    private boolean dropInFacts;
+
     protected Solver(DataflowAnalysis<Node, Fact> analysis) {
         this.analysis = analysis;
     }
@@ -46,7 +55,20 @@ public abstract class Solver<Node, Fact> {
      */
     public static <Node, Fact> Solver<Node, Fact> makeSolver(
             DataflowAnalysis<Node, Fact> analysis) {
-        return new WorkListSolver<>(analysis);
+        return new WorkListSolver<>(analysis, WorkListOrder.RPO);
+    }
+
+    /**
+     * Static factory method to create a new solver for given analysis,
+     * configured by the options of the analysis, i.e., {@code worklist-order}
+     * and {@code drop-in-facts}.
+     */
+    public static <Node, Fact> Solver<Node, Fact> makeSolver(
+            DataflowAnalysis<Node, Fact> analysis, AnalysisOptions options) {
+        Solver<Node, Fact> solver = new WorkListSolver<>(analysis,
+                WorkListOrder.of(options.getString("worklist-order")));
+        solver.dropInFacts = options.getBooleanOrDefault("drop-in-facts", false);
+        return solver;
     }
 
     /**
@@ -58,6 +80,9 @@ public abstract class Solver<Node, Fact> {
     public DataflowResult<Node, Fact> solve(CFG<Node> cfg) {
         DataflowResult<Node, Fact> result = initialize(cfg);
         doSolve(cfg, result);
+        if (dropInFacts) {
+            result.dropInFacts();
+        }
         return result;
     }
 
@@ -67,7 +92,7 @@ public abstract class Solver<Node, Fact> {
      * @return the initialized data-flow result
      */
     private DataflowResult<Node, Fact> initialize(CFG<Node> cfg) {
-        DataflowResult<Node, Fact> result = new DataflowResult<>();
+        DataflowResult<Node, Fact> result = newResult(cfg);
         if (analysis.isForward()) {
             initializeForward(cfg, result);
         } else {
@@ -76,27 +101,39 @@ public abstract class Solver<Node, Fact> {
         return result;
     }
 
+    /**
+     * @return a new empty data-flow result for given CFG, which is
+     * array-based if the nodes of the CFG are {@link Stmt}s.
+     */
+    @SuppressWarnings("unchecked")
+    private static <Node, Fact> DataflowResult<Node, Fact> newResult(CFG<Node> cfg) {
+        if (cfg.getEntry() instanceof Stmt) {
+            return (DataflowResult<Node, Fact>)
+                    new StmtDataflowResult<Fact>((CFG<Stmt>) cfg);
+        } else {
+            return new DataflowResult<>();
+        }
+    }
+
     protected void initializeForward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
-        // TODO - finish me
-        // 算法前三行
-        // OUT[entry] = ∅;
-        result.setOutFact(cfg.getEntry(), analysis.newBoundaryFact(cfg));
-        //for (each basic block B\entry)
-        //  OUT[B] = ∅
-        cfg.forEach((Node node) -> {
-            if (node != cfg.getEntry()) {
-                result.setOutFact(node, analysis.newInitialFact());
-            }
-        });
-        for(Node node : cfg){
-            if(node != cfg.getEntry()){
-                result.setOutFact(node, analysis.newInitialFact());
-            }
+        for (Node node : cfg) {
+            result.setInFact(node, analysis.newInitialFact(cfg));
+            result.setOutFact(node, cfg.isEntry(node) ?
+                    analysis.newBoundaryFact(cfg) : analysis.newInitialFact(cfg));
         }
     }
 
     protected void initializeBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
-        throw new UnsupportedOperationException();
+        // IN[exit] = ∅;
+        result.setInFact(cfg.getExit(), analysis.newBoundaryFact(cfg));
+        // for (each basic block B\exit)
+        //   IN[B] = ∅
+        for (Node node : cfg) {
+            if (!cfg.isExit(node)) {
+                result.setInFact(node, analysis.newInitialFact(cfg));
+                result.setOutFact(node, analysis.newInitialFact(cfg));
+            }
+        }
     }
 
     /**
@@ -22,53 +22,80 @@
 
 package pascal.taie.analysis.dataflow.solver;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
-import pascal.taie.analysis.dataflow.analysis.constprop.CPFact;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.graph.cfg.CFG;
 
-import java.util.LinkedList;
-
+/**
+ * Work-list solver, which only revisits the nodes whose
+ * neighbors' facts have changed. It solves both forward and
+ * backward problems.
+ */
 class WorkListSolver<Node, Fact> extends Solver<Node, Fact> {
 
-    WorkListSolver(DataflowAnalysis<Node, Fact> analysis) {
+    private static final Logger logger = LogManager.getLogger(WorkListSolver.class);
+
+    private final WorkListOrder order;
+
+    WorkListSolver(DataflowAnalysis<Node, Fact> analysis, WorkListOrder order) {
         super(analysis);
+        this.order = order;
     }
 
     @Override
     protected void doSolveForward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
-        // TODO - finish me
-        // 除了前三行的后面的部分
-        // Worklist ← all basic blocks
-        LinkedList<Node> worklist = new LinkedList<>(cfg.getNodes());
-        // while Worklist is not empty
-        while (!worklist.isEmpty()) {
-            // Pick a basic block B from Worklist
-            Node b = worklist.poll();
-            // Old_OUT = OUT[B]
-            CPFact out = null;
-            if(result.getOutFact(b) instanceof CPFact fact){
-//                System.out.println("Old_OUT = OUT[B] = " + fact);
-                out = fact;
+        WorkList<Node> workList = WorkList.make(cfg, order, true);
+        int iterations = 0;
+        while (!workList.isEmpty()) {
+            Node node = workList.poll();
+            ++iterations;
+            if (cfg.isEntry(node)) {
+                // OUT[entry] is the boundary fact, which never changes
+                continue;
             }
-//            CPFact out = (CPFact) result.getOutFact(b);
-            // IN[B] = ⊔P a predecessor of B OUT[P];
-            CPFact in = new CPFact();
-            for (Node pred : cfg.getPredsOf(b)) {
-                analysis.meetInto(result.getOutFact(pred), (Fact)in);
+            // IN[B] = U OUT[P], P a predecessor of B
+            Fact in = result.getInFact(node);
+            Fact out = result.getOutFact(node);
+            for (Node pred : cfg.getPredsOf(node)) {
+                analysis.meetInto(result.getOutFact(pred), in);
             }
-            // OUT[B] = gen B U (IN[B] - kill B);
-            if(analysis.transferNode(b, (Fact) in, (Fact)out)){
-                // if (old_OUT ≠ OUT[B]):Add all successors of B to Worklist
-                worklist.addAll(cfg.getSuccsOf(b));
+            // OUT[B] changed, so IN of its successors may change as well
+            if (analysis.transferNode(cfg, node, in, out)) {
+                workList.addAll(cfg.getSuccsOf(node));
             }
-            result.setInFact(b, (Fact) in);
-            result.setOutFact(b, (Fact) out);
         }
+        logIterations(cfg, iterations);
     }
 
     @Override
     protected void doSolveBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
-        throw new UnsupportedOperationException();
+        WorkList<Node> workList = WorkList.make(cfg, order, false);
+        int iterations = 0;
+        while (!workList.isEmpty()) {
+            Node node = workList.poll();
+            ++iterations;
+            if (cfg.isExit(node)) {
+                // IN[exit] is the boundary fact, which never changes
+                continue;
+            }
+            // OUT[B] = U IN[S], S a successor of B
+            Fact in = result.getInFact(node);
+            Fact out = result.getOutFact(node);
+            for (Node succ : cfg.getSuccsOf(node)) {
+                analysis.meetInto(result.getInFact(succ), out);
+            }
+            // IN[B] changed, so OUT of its predecessors may change as well
+            if (analysis.transferNode(cfg, node, in, out)) {
+                workList.addAll(cfg.getPredsOf(node));
+            }
+        }
+        logIterations(cfg, iterations);
+    }
+
+    private void logIterations(CFG<Node> cfg, int iterations) {
+        logger.debug("{} iterations ({} worklist, {} nodes) for {}",
+                iterations, order, cfg.getNumberOfNodes(), cfg.getMethod());
     }
 }
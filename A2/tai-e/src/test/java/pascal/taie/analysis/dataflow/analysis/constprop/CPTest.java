@@ -32,6 +32,12 @@ public class CPTest {
                 ConstantPropagation.ID, "edge-refine:false");
     }
 
+    void testCP(String inputClass, String worklistOrder) {
+        Tests.test(inputClass, "src/test/resources/dataflow/constprop/",
+                ConstantPropagation.ID,
+                "edge-refine:false;worklist-order:" + worklistOrder);
+    }
+
     @Test
     public void testAssign() {
         testCP("Assign");
@@ -66,4 +72,14 @@ public class CPTest {
     public void testInterprocedural() {
         testCP("Interprocedural");
     }
+
+    @Test
+    public void testLoopFIFO() {
+        testCP("Loop", "fifo");
+    }
+
+    @Test
+    public void testLoopWTO() {
+        testCP("Loop", "wto");
+    }
 }
@@ -49,6 +49,30 @@ public interface DataflowAnalysis<Node, Fact> {
      */
     Fact newInitialFact();
 
+    /**
+     * Solvers create initial facts via this method, so that analyses whose
+     * facts depend on the method being analyzed (e.g., array-based facts
+     * indexed by the variables of the IR) can size them accordingly.
+     * By default, it simply delegates to {@link #newInitialFact()}.
+     *
+     * @return new initial fact for non-boundary nodes of given CFG.
+     */
+    default Fact newInitialFact(CFG<Node> cfg) {
+        return newInitialFact();
+    }
+
+    /**
+     * Resets given fact, which was created by {@link #newInitialFact(CFG)},
+     * to the initial fact in place, so that solvers can reuse it for the
+     * facts they do not keep. By default, facts cannot be reset.
+     *
+     * @return true if the fact was reset, or false if this analysis does not
+     * support resetting facts, in which case solvers create new initial facts.
+     */
+    default boolean resetFact(CFG<Node> cfg, Fact fact) {
+        return false;
+    }
+
     /**
      * Meets a fact into another (target) fact.
      * This function will be used to handle control-flow confluences.
@@ -64,6 +88,18 @@ public interface DataflowAnalysis<Node, Fact> {
      */
     boolean transferNode(Node node, Fact in, Fact out);
 
+    /**
+     * Solvers transfer nodes via this method, so that analyses can look up
+     * per-method information (e.g., the {@link pascal.taie.ir.DefUseIndex}
+     * of the IR) which the nodes themselves do not carry.
+     * By default, it simply delegates to {@link #transferNode(Object, Object, Object)}.
+     *
+     * @return true if the transfer changed the out (in) fact, otherwise false.
+     */
+    default boolean transferNode(CFG<Node> cfg, Node node, Fact in, Fact out) {
+        return transferNode(node, in, out);
+    }
+
     /**
      * @return true if this analysis needs to perform transfer for given edge, otherwise false.
      */
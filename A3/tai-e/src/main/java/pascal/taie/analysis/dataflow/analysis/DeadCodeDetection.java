@@ -32,14 +32,17 @@ import pascal.taie.analysis.graph.cfg.CFG;
 import pascal.taie.analysis.graph.cfg.CFGBuilder;
 import pascal.taie.analysis.graph.cfg.Edge;
 import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.DefUseIndex;
 import pascal.taie.ir.IR;
-import pascal.taie.ir.exp.*;
+import pascal.taie.ir.exp.Var;
 import pascal.taie.ir.stmt.AssignStmt;
 import pascal.taie.ir.stmt.If;
 import pascal.taie.ir.stmt.Stmt;
 import pascal.taie.ir.stmt.SwitchStmt;
 import pascal.taie.util.collection.Pair;
 
+import java.util.ArrayDeque;
+import java.util.BitSet;
 import java.util.Comparator;
 import java.util.Queue;
 import java.util.Set;
@@ -49,8 +52,35 @@ public class DeadCodeDetection extends MethodAnalysis {
 
     public static final String ID = "deadcode";
 
+    /**
+     * Whether to compute the constants and live variables needed by this
+     * analysis on the fly instead of reading the results of
+     * {@link ConstantPropagation} and {@link LiveVariableAnalysis} from
+     * the IR, controlled by option {@code fused}. The constants computed on
+     * the fly are block-based, the live variables are solved on bit vectors,
+     * and both are discarded once the dead code is found.
+     * This analysis still requires constprop and livevar, as declared in
+     * the analysis registry bundled with Tai-e, but ignores their results
+     * in this mode.
+     */
+    private final boolean fused;
+
+    private final ConstantPropagation fusedConstantPropagation;
+
+    private final LiveVariableAnalysis fusedLiveVariableAnalysis;
+
     public DeadCodeDetection(AnalysisConfig config) {
         super(config);
+        fused = getOptions().getBooleanOrDefault("fused", false);
+        if (fused) {
+            fusedConstantPropagation = new ConstantPropagation(new AnalysisConfig(
+                    ConstantPropagation.ID, "basic-blocks", true, "array-facts", true));
+            fusedLiveVariableAnalysis = new LiveVariableAnalysis(new AnalysisConfig(
+                    LiveVariableAnalysis.ID, "bit-vector", true, "drop-in-facts", true));
+        } else {
+            fusedConstantPropagation = null;
+            fusedLiveVariableAnalysis = null;
+        }
     }
 
     @Override
@@ -59,36 +89,42 @@ public class DeadCodeDetection extends MethodAnalysis {
         CFG<Stmt> cfg = ir.getResult(CFGBuilder.ID);
         // obtain result of constant propagation
         // 常量传播的结果
-        DataflowResult<Stmt, CPFact> constants =
+        DataflowResult<Stmt, CPFact> constants = fused ?
+                fusedConstantPropagation.analyze(ir) :
                 ir.getResult(ConstantPropagation.ID);
         // obtain result of live variable analysis
         // 活跃变量分析的结果
-        DataflowResult<Stmt, SetFact<Var>> liveVars =
+        DataflowResult<Stmt, SetFact<Var>> liveVars = fused ?
+                fusedLiveVariableAnalysis.analyze(ir) :
                 ir.getResult(LiveVariableAnalysis.ID);
         // keep statements (dead code) sorted in the resulting set
         Set<Stmt> deadCode = new TreeSet<>(Comparator.comparing(Stmt::getIndex));
+        DefUseIndex defUses = DefUseIndex.of(ir);
         // TODO - finish me
         // Your task is to recognize dead code in ir and add it to deadCode
         // iterate over all statements in the CFG
-        Set<Stmt> liveCode = new TreeSet<>(Comparator.comparing(Stmt::getIndex));
+        // 可达的代码与其中无用的赋值，均以 Stmt 的 index 为下标
+        BitSet reached = new BitSet(cfg.getNumberOfNodes());
+        BitSet uselessAssigns = new BitSet(cfg.getNumberOfNodes());
 
         // BFS 获得所有的活跃代码
-        Queue<Stmt> queue = new java.util.LinkedList<>();
+        Queue<Stmt> queue = new ArrayDeque<>();
         queue.add(cfg.getEntry());
         Stmt now;
         while (!queue.isEmpty()) {
             now = queue.poll();
             // 将now加入活跃代码
-            if (!liveCode.add(now)) {
+            if (reached.get(now.getIndex())) {
                 continue;
             }
+            reached.set(now.getIndex());
             // Assignment
             // 这里直接用now会报错
             if(now instanceof AssignStmt<?,?> ass && ass.getLValue() instanceof Var v) {
                 // 加入副作用检查
-                if (!liveVars.getResult(now).contains(v) && hasNoSideEffect(ass.getRValue())) {
+                if (!liveVars.getResult(now).contains(v) && defUses.isSideEffectFreeAssign(ass)) {
                     // WA：这个情况下，这个赋值语句是死代码
-                    liveCode.remove(now);
+                    uselessAssigns.set(now.getIndex());
                 }
                 queue.addAll(cfg.getSuccsOf(now));
             }
@@ -136,34 +172,11 @@ public class DeadCodeDetection extends MethodAnalysis {
             }
         }
         for(Stmt s : cfg.getNodes()) {
-            if(!liveCode.contains(s)) {
+            if(!reached.get(s.getIndex()) || uselessAssigns.get(s.getIndex())) {
                 deadCode.add(s);
             }
         }
         deadCode.remove(cfg.getExit());
         return deadCode;
     }
-
-    /**
-     * @return true if given RValue has no side effect, otherwise false.
-     */
-    private static boolean hasNoSideEffect(RValue rvalue) {
-        // new expression modifies the heap
-        if (rvalue instanceof NewExp ||
-                // cast may trigger ClassCastException
-                rvalue instanceof CastExp ||
-                // static field access may trigger class initialization
-                // instance field access may trigger NPE
-                rvalue instanceof FieldAccess ||
-                // array access may trigger NPE
-                rvalue instanceof ArrayAccess) {
-            return false;
-        }
-        if (rvalue instanceof ArithmeticExp) {
-            ArithmeticExp.Op op = ((ArithmeticExp) rvalue).getOperator();
-            // may trigger DivideByZeroException
-            return op != ArithmeticExp.Op.DIV && op != ArithmeticExp.Op.REM;
-        }
-        return true;
-    }
 }
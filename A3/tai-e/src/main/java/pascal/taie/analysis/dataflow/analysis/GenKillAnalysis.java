@@ -0,0 +1,157 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis;
+
+import pascal.taie.analysis.dataflow.fact.SetFact;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.config.AnalysisConfig;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Template for classic gen/kill data-flow problems, e.g., live variables,
+ * reaching definitions and available expressions, whose transfer function
+ * of each node is {@code gen ∪ (fact - kill)}.
+ * <p>
+ * An analysis only declares the domain of its facts and the gen and kill
+ * sets of each node. The transfer and meet functions are derived from them,
+ * so that the analysis runs on any solver, and with option
+ * {@code bit-vector}, it is solved by a dedicated solver which precomputes
+ * the gen and kill sets as bit vectors and does not allocate while iterating.
+ *
+ * @param <Node> type of CFG nodes
+ * @param <E>    type of the elements of data-flow facts
+ */
+public abstract class GenKillAnalysis<Node, E>
+        extends AbstractDataflowAnalysis<Node, SetFact<E>> {
+
+    /**
+     * The CFG whose facts were created most recently, i.e., the CFG being
+     * solved, which {@link #transferNode(Object, SetFact, SetFact)} declares
+     * the gen and kill sets with respect to.
+     */
+    private volatile CFG<Node> cfg;
+
+    protected GenKillAnalysis(AnalysisConfig config) {
+        super(config);
+    }
+
+    /**
+     * @return true if this is a may analysis, whose facts are met by union
+     * and are initially empty, or false if this is a must analysis, whose
+     * facts are met by intersection and initially contain the whole domain.
+     */
+    public abstract boolean isMay();
+
+    /**
+     * @return all elements the facts of given CFG may contain.
+     */
+    public abstract List<E> getDomain(CFG<Node> cfg);
+
+    /**
+     * @return the elements generated by given node.
+     */
+    public abstract Collection<E> getGen(CFG<Node> cfg, Node node);
+
+    /**
+     * @return the elements killed by given node.
+     */
+    public abstract Collection<E> getKill(CFG<Node> cfg, Node node);
+
+    @Override
+    public SetFact<E> newBoundaryFact(CFG<Node> cfg) {
+        this.cfg = cfg;
+        return new SetFact<>();
+    }
+
+    /**
+     * Only may analyses can create initial facts without a CFG,
+     * as the initial facts of must analyses are their whole domains.
+     */
+    @Override
+    public SetFact<E> newInitialFact() {
+        if (!isMay()) {
+            throw new UnsupportedOperationException(
+                    "initial facts of must analyses depend on the CFG");
+        }
+        return new SetFact<>();
+    }
+
+    @Override
+    public SetFact<E> newInitialFact(CFG<Node> cfg) {
+        this.cfg = cfg;
+        return isMay() ? new SetFact<>() : new SetFact<>(getDomain(cfg));
+    }
+
+    /**
+     * Only the initial facts of may analyses, i.e., empty sets,
+     * can be reset without copying the domain.
+     */
+    @Override
+    public boolean resetFact(CFG<Node> cfg, SetFact<E> fact) {
+        if (isMay()) {
+            fact.clear();
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void meetInto(SetFact<E> fact, SetFact<E> target) {
+        if (isMay()) {
+            target.union(fact);
+        } else {
+            target.intersect(fact);
+        }
+    }
+
+    /**
+     * The gen and kill sets of a node are declared with respect to its CFG,
+     * which is taken as the CFG whose facts were created most recently.
+     */
+    @Override
+    public boolean transferNode(Node node, SetFact<E> in, SetFact<E> out) {
+        CFG<Node> cfg = this.cfg;
+        if (cfg == null) {
+            throw new IllegalStateException(
+                    "no facts have been created for a CFG of " + node);
+        }
+        return transferNode(cfg, node, in, out);
+    }
+
+    @Override
+    public boolean transferNode(CFG<Node> cfg, Node node,
+                                SetFact<E> in, SetFact<E> out) {
+        SetFact<E> source = isForward() ? in : out;
+        SetFact<E> target = isForward() ? out : in;
+        SetFact<E> result = source.copy();
+        getKill(cfg, node).forEach(result::remove);
+        getGen(cfg, node).forEach(result::add);
+        if (result.equals(target)) {
+            return false;
+        }
+        target.set(result);
+        return true;
+    }
+}
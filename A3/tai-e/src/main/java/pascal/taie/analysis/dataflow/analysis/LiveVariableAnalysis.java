@@ -22,22 +22,19 @@
 
 package pascal.taie.analysis.dataflow.analysis;
 
-import pascal.taie.analysis.dataflow.fact.SetFact;
 import pascal.taie.analysis.graph.cfg.CFG;
 import pascal.taie.config.AnalysisConfig;
-import pascal.taie.ir.exp.LValue;
-import pascal.taie.ir.exp.RValue;
+import pascal.taie.ir.DefUseIndex;
 import pascal.taie.ir.exp.Var;
 import pascal.taie.ir.stmt.Stmt;
 
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
 
 /**
  * Implementation of classic live variable analysis.
  */
-public class LiveVariableAnalysis extends
-        AbstractDataflowAnalysis<Stmt, SetFact<Var>> {
+public class LiveVariableAnalysis extends GenKillAnalysis<Stmt, Var> {
 
     public static final String ID = "livevar";
 
@@ -51,51 +48,28 @@ public class LiveVariableAnalysis extends
     }
 
     @Override
-    public SetFact<Var> newBoundaryFact(CFG<Stmt> cfg) {
-        return new SetFact<>();
+    public boolean isMay() {
+        return true;
     }
 
     @Override
-    public SetFact<Var> newInitialFact() {
-        return new SetFact<>();
+    public List<Var> getDomain(CFG<Stmt> cfg) {
+        return cfg.getIR().getVars();
     }
 
+    /**
+     * A statement generates the variables it uses.
+     */
     @Override
-    public void meetInto(SetFact<Var> fact, SetFact<Var> target) {
-        target.union(fact);
+    public Collection<Var> getGen(CFG<Stmt> cfg, Stmt stmt) {
+        return DefUseIndex.of(cfg.getIR()).getUseVars(stmt);
     }
 
+    /**
+     * A statement kills the variable it defines.
+     */
     @Override
-    public boolean transferNode(Stmt stmt, SetFact<Var> in, SetFact<Var> out) {
-        // 这里是引用传递，不能乱改
-        SetFact<Var> oldOut = out.copy();
-        // Get the left values of the statement
-        Optional<LValue> def = stmt.getDef();
-        if(def.isPresent()){
-            LValue lv = def.get();
-            if(lv instanceof Var){
-                oldOut.remove((Var) lv);
-            }
-        }
-
-        // Get the right values of the statement
-        List<RValue> listR =  stmt.getUses();
-        SetFact<Var> use = new SetFact<>();
-        for(RValue r : listR){
-            if(r instanceof Var){
-                use.add((Var) r);
-            }
-        }
-        // union use_B
-        oldOut.union(use);
-
-        // if change
-        if(oldOut.equals(in)){
-            in.set(oldOut);
-            return false;
-        }else{
-            in.set(oldOut);
-            return true;
-        }
+    public Collection<Var> getKill(CFG<Stmt> cfg, Stmt stmt) {
+        return DefUseIndex.of(cfg.getIR()).getDefVars(stmt);
     }
 }
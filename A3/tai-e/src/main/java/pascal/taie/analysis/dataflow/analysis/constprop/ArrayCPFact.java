@@ -0,0 +1,365 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import pascal.taie.analysis.dataflow.fact.MapFact;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.Var;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+
+/**
+ * {@link CPFact} which encodes the lattice values of the variables of an IR
+ * in two parallel arrays indexed by {@link Var#getIndex()}: a kind array
+ * (UNDEF, constant or NAC) and a constant array, so that no {@link Value}
+ * or map entry is kept for any variable. Meet ({@link #meet(ArrayCPFact)}),
+ * copying and comparison of such facts are loops over the arrays.
+ * <p>
+ * The object API of {@link CPFact} is kept as an adapter, i.e., values are
+ * decoded to {@link Value}s when queried and encoded when updated.
+ * Like {@link MapFact}, copies share the arrays until either is modified.
+ * The arrays are allocated on the first update, so that empty facts, e.g.,
+ * the initial facts created by the solvers for every node, are cheap.
+ * All facts to be compared or merged must be created for the same IR.
+ */
+public class ArrayCPFact extends CPFact {
+
+    private static final byte UNDEF = 0;
+
+    private static final byte CONSTANT = 1;
+
+    private static final byte NAC = 2;
+
+    /**
+     * Maps indexes back to variables.
+     */
+    private final IntFunction<Var> vars;
+
+    /**
+     * Number of variables, i.e., the length of the arrays.
+     */
+    private final int capacity;
+
+    /**
+     * Kinds of the variables, or null if no variable has been set.
+     */
+    private byte[] kinds;
+
+    /**
+     * constants[i] is the constant of the i-th variable if its kind is
+     * {@link #CONSTANT}, otherwise 0, so that equal facts have equal arrays.
+     */
+    private int[] constants;
+
+    /**
+     * Number of variables whose values are not UNDEF.
+     */
+    private int size;
+
+    /**
+     * Whether the arrays may be shared with other facts.
+     */
+    private boolean shared;
+
+    /**
+     * Creates an empty fact for the variables of given IR.
+     */
+    public ArrayCPFact(IR ir) {
+        this(ir::getVar, ir.getVars().size());
+    }
+
+    /**
+     * Creates an empty fact for the variables indexed from 0 to
+     * {@code capacity - 1}.
+     *
+     * @param vars maps an index to the variable with the index
+     */
+    public ArrayCPFact(IntFunction<Var> vars, int capacity) {
+        this.vars = vars;
+        this.capacity = capacity;
+    }
+
+    private ArrayCPFact(ArrayCPFact fact) {
+        this.vars = fact.vars;
+        this.capacity = fact.capacity;
+        share(fact);
+    }
+
+    private void share(ArrayCPFact fact) {
+        this.kinds = fact.kinds;
+        this.constants = fact.constants;
+        this.size = fact.size;
+        this.shared = fact.shared = true;
+    }
+
+    /**
+     * Sets the kind and constant of the i-th variable.
+     */
+    private void set(int i, byte kind, int constant) {
+        if (kinds == null) {
+            kinds = new byte[capacity];
+            constants = new int[capacity];
+            shared = false;
+        } else if (shared) {
+            kinds = kinds.clone();
+            constants = constants.clone();
+            shared = false;
+        }
+        if (kinds[i] == UNDEF) {
+            ++size;
+        } else if (kind == UNDEF) {
+            --size;
+        }
+        kinds[i] = kind;
+        constants[i] = constant;
+    }
+
+    private Value decode(int i) {
+        return switch (kinds[i]) {
+            case CONSTANT -> Value.makeConstant(constants[i]);
+            case NAC -> Value.getNAC();
+            default -> Value.getUndef();
+        };
+    }
+
+    @Override
+    public Value get(Var key) {
+        int i = key.getIndex();
+        return i < length() ? decode(i) : Value.getUndef();
+    }
+
+    @Override
+    public boolean update(Var key, Value value) {
+        int i = key.getIndex();
+        byte kind;
+        int constant = 0;
+        if (value.isConstant()) {
+            kind = CONSTANT;
+            constant = value.getConstant();
+        } else if (value.isNAC()) {
+            kind = NAC;
+        } else {
+            kind = UNDEF;
+        }
+        if (kinds == null ? kind == UNDEF :
+                kinds[i] == kind && constants[i] == constant) {
+            return false;
+        }
+        set(i, kind, constant);
+        return true;
+    }
+
+    @Override
+    public Value remove(Var key) {
+        Value value = get(key);
+        if (value.isUndef()) {
+            return null;
+        }
+        set(key.getIndex(), UNDEF, 0);
+        return value;
+    }
+
+    /**
+     * Meets given fact into this fact.
+     *
+     * @return true if this fact changed as a result of the call, otherwise false.
+     */
+    public boolean meet(ArrayCPFact fact) {
+        if (size == 0) {
+            return copyFrom(fact);
+        }
+        if (fact.size == 0) {
+            return false;
+        }
+        byte[] otherKinds = fact.kinds;
+        int[] otherConstants = fact.constants;
+        boolean changed = false;
+        for (int i = 0; i < otherKinds.length; ++i) {
+            byte kind = otherKinds[i];
+            if (kind == UNDEF || kinds[i] == NAC) {
+                continue;
+            }
+            if (kinds[i] == UNDEF) {
+                set(i, kind, otherConstants[i]);
+                changed = true;
+            } else if (kind == NAC || constants[i] != otherConstants[i]) {
+                set(i, NAC, 0);
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean copyFrom(MapFact<Var, Value> fact) {
+        if (!(fact instanceof ArrayCPFact other)) {
+            return super.copyFrom(fact);
+        }
+        if (size == 0) {
+            // nothing to merge with, just share the arrays of given fact
+            share(other);
+            return size != 0;
+        }
+        if (other.size == 0) {
+            return false;
+        }
+        byte[] otherKinds = other.kinds;
+        int[] otherConstants = other.constants;
+        boolean changed = false;
+        for (int i = 0; i < otherKinds.length; ++i) {
+            byte kind = otherKinds[i];
+            if (kind != UNDEF &&
+                    (kinds[i] != kind || constants[i] != otherConstants[i])) {
+                set(i, kind, otherConstants[i]);
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    @Override
+    public ArrayCPFact copy() {
+        return new ArrayCPFact(this);
+    }
+
+    @Override
+    public void clear() {
+        if (kinds == null) {
+            return;
+        }
+        if (shared) {
+            kinds = null;
+            constants = null;
+            shared = false;
+        } else {
+            Arrays.fill(kinds, UNDEF);
+            Arrays.fill(constants, 0);
+        }
+        size = 0;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public Set<Var> keySet() {
+        return new AbstractSet<>() {
+
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof Var var && !get(var).isUndef();
+            }
+
+            @Override
+            public Iterator<Var> iterator() {
+                return new Iterator<>() {
+
+                    private int next = advance(0);
+
+                    private int advance(int i) {
+                        while (i < length() && kinds[i] == UNDEF) {
+                            ++i;
+                        }
+                        return i;
+                    }
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < length();
+                    }
+
+                    @Override
+                    public Var next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        Var var = vars.apply(next);
+                        next = advance(next + 1);
+                        return var;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public Stream<Map.Entry<Var, Value>> entries() {
+        return keySet().stream().map(var -> Map.entry(var, get(var)));
+    }
+
+    @Override
+    public void forEach(BiConsumer<Var, Value> action) {
+        for (int i = 0; i < length(); ++i) {
+            if (kinds[i] != UNDEF) {
+                action.accept(vars.apply(i), decode(i));
+            }
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ArrayCPFact that = (ArrayCPFact) o;
+        if (size != that.size) {
+            return false;
+        }
+        if (size == 0 || kinds == that.kinds && constants == that.constants) {
+            return true;
+        }
+        return Arrays.equals(kinds, that.kinds) &&
+                Arrays.equals(constants, that.constants);
+    }
+
+    @Override
+    public int hashCode() {
+        return size == 0 ? 0 :
+                31 * Arrays.hashCode(kinds) + Arrays.hashCode(constants);
+    }
+
+    /**
+     * @return the length of the arrays, or 0 if they are not allocated yet.
+     */
+    private int length() {
+        return kinds == null ? 0 : kinds.length;
+    }
+}
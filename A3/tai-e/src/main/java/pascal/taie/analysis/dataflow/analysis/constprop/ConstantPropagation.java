@@ -23,8 +23,11 @@
 package pascal.taie.analysis.dataflow.analysis.constprop;
 
 import pascal.taie.analysis.dataflow.analysis.AbstractDataflowAnalysis;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
 import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.IR;
 import pascal.taie.ir.exp.ArithmeticExp;
 import pascal.taie.ir.exp.BinaryExp;
 import pascal.taie.ir.exp.BitwiseExp;
@@ -45,8 +48,31 @@ public class ConstantPropagation extends
 
     public static final String ID = "constprop";
 
+    /**
+     * Whether to use the sparse (SCCP) engine instead of the
+     * data-flow solver, controlled by option {@code sparse}.
+     */
+    private final boolean sparse;
+
+    /**
+     * Whether to represent the facts as {@link ArrayCPFact}s,
+     * controlled by option {@code array-facts}.
+     */
+    private final boolean arrayFacts;
+
     public ConstantPropagation(AnalysisConfig config) {
         super(config);
+        sparse = getOptions().getBooleanOrDefault("sparse", false);
+        arrayFacts = getOptions().getBooleanOrDefault("array-facts", false);
+    }
+
+    @Override
+    public DataflowResult<Stmt, CPFact> analyze(IR ir) {
+        if (sparse) {
+            CFG<Stmt> cfg = ir.getResult(CFGBuilder.ID);
+            return new SparseConstantPropagation(this, cfg).solve();
+        }
+        return super.analyze(ir);
     }
 
     @Override
@@ -56,7 +82,7 @@ public class ConstantPropagation extends
 
     @Override
     public CPFact newBoundaryFact(CFG<Stmt> cfg) {
-        CPFact res = new CPFact();
+        CPFact res = newInitialFact(cfg);
         List<Var> params = cfg.getIR().getParams();
         for (Var param : params) {
             if (canHoldInt(param)) {
@@ -71,8 +97,30 @@ public class ConstantPropagation extends
         return new CPFact();
     }
 
+    @Override
+    public CPFact newInitialFact(CFG<Stmt> cfg) {
+        return arrayFacts ? new ArrayCPFact(cfg.getIR()) : newInitialFact();
+    }
+
+    @Override
+    public boolean resetFact(CFG<Stmt> cfg, CPFact fact) {
+        // the initial fact maps all variables to UNDEF
+        fact.clear();
+        return true;
+    }
+
     @Override
     public void meetInto(CPFact fact, CPFact target) {
+        if (fact instanceof ArrayCPFact arrayFact &&
+                target instanceof ArrayCPFact arrayTarget) {
+            arrayTarget.meet(arrayFact);
+            return;
+        }
+        if (target.isEmpty()) {
+            // UNDEF is the identity of meet, so just (lazily) copy fact
+            target.copyFrom(fact);
+            return;
+        }
         fact.forEach((var, value) -> {
             Value targetValue = meetValue(value, target.get(var));
             target.update(var, targetValue);
@@ -92,15 +140,13 @@ public class ConstantPropagation extends
             return Value.getUndef();
         } else if (v1.isUndef()) {
             // Undef n v = v
-            // return v2;
-            return Value.makeConstant(v2.getConstant());
+            return v2;
         } else if (v2.isUndef()) {
             // v n Undef = v
-//            return v1;
-            return Value.makeConstant(v1.getConstant());
+            return v1;
         } else if (v1.isConstant() && v2.isConstant() && v1.equals(v2)) {
             // v n v = v
-            return Value.makeConstant(v1.getConstant());
+            return v1;
         } else if (v1.isConstant() && v2.isConstant() && !v1.equals(v2)) {
             // v n w = NAC
             return Value.getNAC();
@@ -115,7 +161,7 @@ public class ConstantPropagation extends
         // 长记性了 这次是引用传递了
         boolean changed = false;
         CPFact oldOut = out.copy();
-        in.forEach(out::update);
+        out.copyFrom(in);
         if(!out.equals(oldOut)){
             changed = true;
         }
@@ -165,9 +211,6 @@ public class ConstantPropagation extends
             return Value.makeConstant(e.getValue());
         } else if (exp instanceof Var v) {
             // if x = y gen = {(x, y)}
-            if (in.get(v).isConstant()) {
-                return Value.makeConstant(in.get(v).getConstant());
-            }
             return in.get(v);
         } else if (exp instanceof BinaryExp b) {
             // if x = y op z gen = {(x, y op z)}
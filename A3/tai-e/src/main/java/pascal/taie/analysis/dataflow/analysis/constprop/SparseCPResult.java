@@ -0,0 +1,248 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.ssa.Phi;
+import pascal.taie.ir.ssa.SSA;
+import pascal.taie.ir.ssa.SSAVar;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.graph.DominatorTree;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Result of {@link SparseConstantPropagation}, presented in the same shape
+ * as the result of the dense constant propagation, i.e., as in/out
+ * {@link CPFact}s of statements.
+ * <p>
+ * The facts are not stored. Instead, this result keeps a cursor on the
+ * dominator tree together with the SSA versions reaching it, and moves
+ * the cursor to the queried statement by undoing and applying only the
+ * definitions between the two, so that visiting the statements in order
+ * rebuilds their facts incrementally. Each query returns a new fact.
+ * The facts of unreachable statements are empty (all variables are UNDEF).
+ * <p>
+ * Facts set via {@link #setInFact} and {@link #setOutFact} are stored,
+ * and override the facts of their statements.
+ */
+public class SparseCPResult extends DataflowResult<Stmt, CPFact> {
+
+    private final SSA ssa;
+
+    private final DominatorTree<Stmt> domTree;
+
+    private final Value[] values;
+
+    private final Set<Stmt> reachable;
+
+    private final MultiMap<Stmt, Stmt> executablePreds;
+
+    /**
+     * The versions reaching the beginning of the statement on top
+     * of {@link #path}.
+     */
+    private final Map<Var, SSAVar> current = Maps.newMap();
+
+    /**
+     * Path of the cursor from the entry of the dominator tree.
+     */
+    private final Deque<Step> path = new ArrayDeque<>();
+
+    /**
+     * Maps the statements on {@link #path} to their steps.
+     */
+    private final Map<Stmt, Step> onPath = Maps.newMap();
+
+    private final Map<Stmt, CPFact> inOverrides = Maps.newMap();
+
+    private final Map<Stmt, CPFact> outOverrides = Maps.newMap();
+
+    SparseCPResult(SSA ssa, Value[] values, Set<Stmt> reachable,
+                   MultiMap<Stmt, Stmt> executablePreds) {
+        this.ssa = ssa;
+        this.domTree = ssa.getDominatorTree();
+        this.values = values;
+        this.reachable = reachable;
+        this.executablePreds = executablePreds;
+    }
+
+    public SSA getSSA() {
+        return ssa;
+    }
+
+    /**
+     * @return the value of given SSA version.
+     */
+    public Value getValue(SSAVar v) {
+        return values[v.getIndex()];
+    }
+
+    /**
+     * @return true if given statement may be executed, i.e.,
+     * it is reachable via executable edges.
+     */
+    public boolean isReachable(Stmt stmt) {
+        return reachable.contains(stmt);
+    }
+
+    /**
+     * @return true if control may flow from source to target.
+     */
+    public boolean isExecutable(Stmt source, Stmt target) {
+        return executablePreds.get(target).contains(source);
+    }
+
+    @Override
+    public synchronized CPFact getInFact(Stmt stmt) {
+        CPFact override = inOverrides.get(stmt);
+        return override != null ? override : computeInFact(stmt);
+    }
+
+    private CPFact computeInFact(Stmt stmt) {
+        CPFact fact = new CPFact();
+        if (isReachable(stmt)) {
+            moveTo(stmt);
+            current.forEach((var, v) -> fact.update(var, getValue(v)));
+        }
+        return fact;
+    }
+
+    @Override
+    public synchronized CPFact getOutFact(Stmt stmt) {
+        CPFact override = outOverrides.get(stmt);
+        if (override != null) {
+            return override;
+        }
+        CPFact fact = computeInFact(stmt);
+        SSAVar def = ssa.getDef(stmt);
+        if (def != null && isReachable(stmt)) {
+            fact.update(def.getVar(), getValue(def));
+        }
+        return fact;
+    }
+
+    @Override
+    public synchronized void setInFact(Stmt stmt, CPFact fact) {
+        inOverrides.put(stmt, fact);
+    }
+
+    @Override
+    public synchronized void setOutFact(Stmt stmt, CPFact fact) {
+        outOverrides.put(stmt, fact);
+    }
+
+    @Override
+    public synchronized void dropInFacts() {
+        // only the overriding facts are stored
+        inOverrides.clear();
+    }
+
+    /**
+     * Moves the cursor to given statement, which must be reachable
+     * from the entry. The cost is the distance between the old and
+     * the new position in the dominator tree.
+     */
+    private void moveTo(Stmt stmt) {
+        List<Stmt> down = new ArrayList<>();
+        Stmt node = stmt;
+        while (node != null && !onPath.containsKey(node)) {
+            down.add(node);
+            node = domTree.getIdom(node);
+        }
+        // node is now the nearest common dominator on the path, or null
+        while (!path.isEmpty() && path.peek().stmt != node) {
+            leave();
+        }
+        for (int i = down.size() - 1; i >= 0; --i) {
+            enter(down.get(i));
+        }
+    }
+
+    /**
+     * Pushes a child of the top of {@link #path} (or the entry if the path
+     * is empty), i.e., applies the definition of its immediate dominator
+     * and its own phi functions.
+     */
+    private void enter(Stmt stmt) {
+        Step step = new Step(stmt);
+        Stmt idom = domTree.getIdom(stmt);
+        if (idom == null) {
+            ssa.getEntryDefs().values().forEach(step::apply);
+        } else {
+            SSAVar def = ssa.getDef(idom);
+            if (def != null) {
+                step.apply(def);
+            }
+        }
+        for (Phi phi : ssa.getPhis(stmt)) {
+            step.apply(phi.getResult());
+        }
+        path.push(step);
+        onPath.put(stmt, step);
+    }
+
+    private void leave() {
+        Step step = path.pop();
+        onPath.remove(step.stmt);
+        for (int i = step.vars.size() - 1; i >= 0; --i) {
+            Var var = step.vars.get(i);
+            SSAVar old = step.olds.get(i);
+            if (old == null) {
+                current.remove(var);
+            } else {
+                current.put(var, old);
+            }
+        }
+    }
+
+    /**
+     * A statement on the path of the cursor, with the versions
+     * it shadows so that they can be restored when it is left.
+     */
+    private class Step {
+
+        private final Stmt stmt;
+
+        private final List<Var> vars = new ArrayList<>(2);
+
+        private final List<SSAVar> olds = new ArrayList<>(2);
+
+        private Step(Stmt stmt) {
+            this.stmt = stmt;
+        }
+
+        private void apply(SSAVar v) {
+            vars.add(v.getVar());
+            olds.add(current.put(v.getVar(), v));
+        }
+    }
+}
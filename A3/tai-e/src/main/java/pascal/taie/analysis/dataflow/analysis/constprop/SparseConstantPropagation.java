@@ -0,0 +1,213 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.Edge;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.ssa.Phi;
+import pascal.taie.ir.ssa.SSA;
+import pascal.taie.ir.ssa.SSAVar;
+import pascal.taie.ir.stmt.DefinitionStmt;
+import pascal.taie.ir.stmt.If;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.ir.stmt.SwitchStmt;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Sparse conditional constant propagation (SCCP), see Wegman and Zadeck,
+ * "Constant Propagation with Conditional Branches".
+ * <p>
+ * The lattice values are kept per SSA version instead of per statement,
+ * and a value is only re-evaluated when one of its operands changes.
+ * Control flow is discovered during the propagation: a CFG edge becomes
+ * executable only if its source is reachable and, for branches, the
+ * condition may take the branch, so the code behind branches that are
+ * never taken stays unreachable.
+ */
+class SparseConstantPropagation {
+
+    private final ConstantPropagation cp;
+
+    private final CFG<Stmt> cfg;
+
+    private final SSA ssa;
+
+    /**
+     * Lattice values of the SSA versions, indexed by {@link SSAVar#getIndex()}.
+     */
+    private final Value[] values;
+
+    private final Set<Stmt> reachable = Sets.newSet();
+
+    /**
+     * Maps each node to the predecessors from which an executable
+     * edge goes to the node.
+     */
+    private final MultiMap<Stmt, Stmt> executablePreds = Maps.newMultiMap();
+
+    private final Queue<Edge<Stmt>> flowWorkList = new ArrayDeque<>();
+
+    private final Queue<SSAVar> ssaWorkList = new ArrayDeque<>();
+
+    SparseConstantPropagation(ConstantPropagation cp, CFG<Stmt> cfg) {
+        this.cp = cp;
+        this.cfg = cfg;
+        this.ssa = SSA.build(cfg, ConstantPropagation::canHoldInt);
+        this.values = new Value[ssa.getSSAVars().size()];
+        Arrays.fill(values, Value.getUndef());
+    }
+
+    SparseCPResult solve() {
+        Stmt entry = cfg.getEntry();
+        reachable.add(entry);
+        ssa.getEntryDefs().values().forEach(v -> lower(v, Value.getNAC()));
+        visitBody(entry);
+        while (!flowWorkList.isEmpty() || !ssaWorkList.isEmpty()) {
+            while (!flowWorkList.isEmpty()) {
+                Edge<Stmt> edge = flowWorkList.poll();
+                Stmt target = edge.getTarget();
+                if (executablePreds.put(target, edge.getSource())) {
+                    if (reachable.add(target)) {
+                        visitPhis(target);
+                        visitBody(target);
+                    } else {
+                        // a new executable predecessor only affects phis
+                        visitPhis(target);
+                    }
+                }
+            }
+            while (!ssaWorkList.isEmpty()) {
+                SSAVar v = ssaWorkList.poll();
+                for (Phi phi : ssa.getPhiUsers(v)) {
+                    if (reachable.contains(phi.getNode())) {
+                        visitPhi(phi);
+                    }
+                }
+                for (Stmt stmt : ssa.getStmtUsers(v)) {
+                    if (reachable.contains(stmt)) {
+                        visitBody(stmt);
+                    }
+                }
+            }
+        }
+        return new SparseCPResult(ssa, values, reachable, executablePreds);
+    }
+
+    private void visitPhis(Stmt node) {
+        ssa.getPhis(node).forEach(this::visitPhi);
+    }
+
+    private void visitPhi(Phi phi) {
+        Set<Stmt> preds = executablePreds.get(phi.getNode());
+        Value value = Value.getUndef();
+        for (Map.Entry<Stmt, SSAVar> operand : phi.getOperands().entrySet()) {
+            if (preds.contains(operand.getKey())) {
+                value = cp.meetValue(value, getValue(operand.getValue()));
+            }
+        }
+        lower(phi.getResult(), value);
+    }
+
+    private void visitBody(Stmt stmt) {
+        SSAVar def = ssa.getDef(stmt);
+        if (def != null && stmt instanceof DefinitionStmt<?, ?> defStmt) {
+            lower(def, ConstantPropagation.evaluate(defStmt.getRValue(), getUseFact(stmt)));
+        }
+        if (stmt instanceof If ifStmt) {
+            Value cond = ConstantPropagation.evaluate(
+                    ifStmt.getCondition(), getUseFact(stmt));
+            for (Edge<Stmt> edge : cfg.getOutEdgesOf(stmt)) {
+                boolean executable = switch (edge.getKind()) {
+                    case IF_TRUE -> mayBe(cond, 1);
+                    case IF_FALSE -> mayBe(cond, 0);
+                    default -> true;
+                };
+                if (executable) {
+                    flowWorkList.add(edge);
+                }
+            }
+        } else if (stmt instanceof SwitchStmt switchStmt) {
+            Value cond = ConstantPropagation.evaluate(
+                    switchStmt.getVar(), getUseFact(stmt));
+            boolean matched = cond.isConstant() &&
+                    cfg.getOutEdgesOf(stmt).stream().anyMatch(e ->
+                            e.isSwitchCase() && e.getCaseValue() == cond.getConstant());
+            for (Edge<Stmt> edge : cfg.getOutEdgesOf(stmt)) {
+                boolean executable = switch (edge.getKind()) {
+                    case SWITCH_CASE -> mayBe(cond, edge.getCaseValue());
+                    case SWITCH_DEFAULT -> cond.isNAC() ||
+                            (cond.isConstant() && !matched);
+                    default -> true;
+                };
+                if (executable) {
+                    flowWorkList.add(edge);
+                }
+            }
+        } else {
+            flowWorkList.addAll(cfg.getOutEdgesOf(stmt));
+        }
+    }
+
+    /**
+     * @return true if a variable of given value may hold integer i.
+     */
+    private static boolean mayBe(Value value, int i) {
+        return value.isNAC() || (value.isConstant() && value.getConstant() == i);
+    }
+
+    private Value getValue(SSAVar v) {
+        return values[v.getIndex()];
+    }
+
+    /**
+     * @return a fact holding the values of the variables used by given
+     * statement, which is all that is needed to evaluate the statement.
+     */
+    private CPFact getUseFact(Stmt stmt) {
+        CPFact fact = new CPFact();
+        ssa.getUses(stmt).forEach((Var var, SSAVar v) -> fact.update(var, getValue(v)));
+        return fact;
+    }
+
+    /**
+     * Lowers the value of given version to the meet of its current value
+     * and given value, and schedules the users if the value changes.
+     */
+    private void lower(SSAVar v, Value value) {
+        Value old = getValue(v);
+        Value lowered = cp.meetValue(old, value);
+        if (!lowered.equals(old)) {
+            values[v.getIndex()] = lowered;
+            ssaWorkList.add(v);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.graph.cfg.BasicBlock;
+import pascal.taie.analysis.graph.cfg.BlockCFG;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * {@link DataflowResult} computed by {@link BlockSolver}, which only keeps
+ * the facts at the boundaries of basic blocks.
+ * <p>
+ * The facts of the nodes inside a block are recomputed by replaying the
+ * transfer functions of the block the first time any of its nodes is
+ * queried, and are then kept for later queries. The queries may come from
+ * different threads, as method analyses run in parallel, thus they are
+ * synchronized. Facts set via {@link #setInFact} and {@link #setOutFact}
+ * override the recomputed facts of their nodes.
+ *
+ * @param <Node> type of CFG nodes
+ * @param <Fact> type of data-flow facts
+ */
+class BlockDataflowResult<Node, Fact> extends DataflowResult<Node, Fact> {
+
+    private final DataflowAnalysis<Node, Fact> analysis;
+
+    private final BlockCFG<Node> blockCFG;
+
+    private final Object[] blockInFacts;
+
+    private final Object[] blockOutFacts;
+
+    /**
+     * The i-th bit is set if the node facts of the i-th block
+     * have been computed.
+     */
+    private final BitSet expanded;
+
+    private final DataflowResult<Node, Fact> nodeFacts;
+
+    private boolean inFactsDropped = false;
+
+    BlockDataflowResult(DataflowAnalysis<Node, Fact> analysis, BlockCFG<Node> blockCFG) {
+        this.analysis = analysis;
+        this.blockCFG = blockCFG;
+        int size = blockCFG.getNumberOfNodes();
+        this.blockInFacts = new Object[size];
+        this.blockOutFacts = new Object[size];
+        this.expanded = new BitSet(size);
+        this.nodeFacts = Solver.newNodeResult(blockCFG.getCFG());
+    }
+
+    BlockCFG<Node> getBlockCFG() {
+        return blockCFG;
+    }
+
+    @SuppressWarnings("unchecked")
+    Fact getBlockInFact(BasicBlock<Node> block) {
+        return (Fact) blockInFacts[block.getIndex()];
+    }
+
+    void setBlockInFact(BasicBlock<Node> block, Fact fact) {
+        blockInFacts[block.getIndex()] = fact;
+    }
+
+    @SuppressWarnings("unchecked")
+    Fact getBlockOutFact(BasicBlock<Node> block) {
+        return (Fact) blockOutFacts[block.getIndex()];
+    }
+
+    void setBlockOutFact(BasicBlock<Node> block, Fact fact) {
+        blockOutFacts[block.getIndex()] = fact;
+    }
+
+    @Override
+    public synchronized Fact getInFact(Node node) {
+        if (inFactsDropped || !expand(node)) {
+            return null;
+        }
+        return nodeFacts.getInFact(node);
+    }
+
+    @Override
+    public synchronized Fact getOutFact(Node node) {
+        return expand(node) ? nodeFacts.getOutFact(node) : null;
+    }
+
+    /**
+     * Overrides the in fact of given node, after the facts of its block
+     * have been computed so that they do not replace the override.
+     */
+    @Override
+    public synchronized void setInFact(Node node, Fact fact) {
+        expand(node);
+        nodeFacts.setInFact(node, fact);
+    }
+
+    /**
+     * Overrides the out fact of given node, after the facts of its block
+     * have been computed so that they do not replace the override.
+     */
+    @Override
+    public synchronized void setOutFact(Node node, Fact fact) {
+        expand(node);
+        nodeFacts.setOutFact(node, fact);
+    }
+
+    @Override
+    public synchronized void dropInFacts() {
+        inFactsDropped = true;
+        nodeFacts.dropInFacts();
+    }
+
+    /**
+     * Computes the facts of the nodes in the block containing given node,
+     * if they have not been computed yet.
+     *
+     * @return false if given node is not in the CFG, otherwise true.
+     */
+    private boolean expand(Node node) {
+        BasicBlock<Node> block = blockCFG.getBlockOf(node);
+        if (block == null) {
+            return false;
+        }
+        if (!expanded.get(block.getIndex())) {
+            expanded.set(block.getIndex());
+            List<Node> nodes = block.getNodes();
+            int last = nodes.size() - 1;
+            if (analysis.isForward()) {
+                Fact in = getBlockInFact(block);
+                for (int i = 0; i < last; ++i) {
+                    Fact out = analysis.newInitialFact(blockCFG.getCFG());
+                    analysis.transferNode(blockCFG.getCFG(), nodes.get(i), in, out);
+                    nodeFacts.setInFact(nodes.get(i), in);
+                    nodeFacts.setOutFact(nodes.get(i), out);
+                    in = out;
+                }
+                nodeFacts.setInFact(nodes.get(last), in);
+                nodeFacts.setOutFact(nodes.get(last), getBlockOutFact(block));
+            } else {
+                Fact out = getBlockOutFact(block);
+                for (int i = last; i > 0; --i) {
+                    Fact in = analysis.newInitialFact(blockCFG.getCFG());
+                    analysis.transferNode(blockCFG.getCFG(), nodes.get(i), in, out);
+                    nodeFacts.setInFact(nodes.get(i), in);
+                    nodeFacts.setOutFact(nodes.get(i), out);
+                    out = in;
+                }
+                nodeFacts.setInFact(nodes.get(0), getBlockInFact(block));
+                nodeFacts.setOutFact(nodes.get(0), out);
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.graph.cfg.BasicBlock;
+import pascal.taie.analysis.graph.cfg.BlockCFG;
+import pascal.taie.analysis.graph.cfg.CFG;
+
+import java.util.List;
+
+/**
+ * Work-list solver which iterates over the basic blocks of a CFG instead
+ * of its nodes. The transfer function of a block applies the transfer
+ * functions of its nodes in sequence, and only the facts at the block
+ * boundaries are kept during solving; see {@link BlockDataflowResult}
+ * for how the node facts are obtained afterwards.
+ */
+class BlockSolver<Node, Fact> extends Solver<Node, Fact> {
+
+    private static final Logger logger = LogManager.getLogger(BlockSolver.class);
+
+    private final WorkListOrder order;
+
+    BlockSolver(DataflowAnalysis<Node, Fact> analysis, WorkListOrder order) {
+        super(analysis);
+        this.order = order;
+    }
+
+    @Override
+    protected DataflowResult<Node, Fact> newResult(CFG<Node> cfg) {
+        return new BlockDataflowResult<>(analysis, BlockCFG.of(cfg));
+    }
+
+    @Override
+    protected void initializeForward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
+        BlockDataflowResult<Node, Fact> blockResult = (BlockDataflowResult<Node, Fact>) result;
+        BlockCFG<Node> blockCFG = blockResult.getBlockCFG();
+        for (BasicBlock<Node> block : blockCFG) {
+            blockResult.setBlockInFact(block, analysis.newInitialFact(cfg));
+            blockResult.setBlockOutFact(block, block == blockCFG.getEntry() ?
+                    analysis.newBoundaryFact(cfg) : analysis.newInitialFact(cfg));
+        }
+    }
+
+    @Override
+    protected void initializeBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
+        BlockDataflowResult<Node, Fact> blockResult = (BlockDataflowResult<Node, Fact>) result;
+        BlockCFG<Node> blockCFG = blockResult.getBlockCFG();
+        for (BasicBlock<Node> block : blockCFG) {
+            if (block == blockCFG.getExit()) {
+                blockResult.setBlockInFact(block, analysis.newBoundaryFact(cfg));
+                blockResult.setBlockOutFact(block, analysis.newBoundaryFact(cfg));
+            } else {
+                blockResult.setBlockInFact(block, analysis.newInitialFact(cfg));
+                blockResult.setBlockOutFact(block, analysis.newInitialFact(cfg));
+            }
+        }
+    }
+
+    @Override
+    protected void doSolveForward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
+        BlockDataflowResult<Node, Fact> blockResult = (BlockDataflowResult<Node, Fact>) result;
+        BlockCFG<Node> blockCFG = blockResult.getBlockCFG();
+        WorkList<BasicBlock<Node>> workList = WorkList.make(blockCFG,
+                blockCFG.getEntry(), blockCFG.getExit(), order, true);
+        ScratchFacts scratch = new ScratchFacts(cfg);
+        int iterations = 0;
+        while (!workList.isEmpty()) {
+            BasicBlock<Node> block = workList.poll();
+            ++iterations;
+            if (block == blockCFG.getEntry()) {
+                // OUT[entry] is the boundary fact, which never changes
+                continue;
+            }
+            Fact in = blockResult.getBlockInFact(block);
+            for (BasicBlock<Node> pred : blockCFG.getPredsOf(block)) {
+                analysis.meetInto(blockResult.getBlockOutFact(pred), in);
+            }
+            if (transferBlockForward(cfg, block, in,
+                    blockResult.getBlockOutFact(block), scratch)) {
+                workList.addAll(blockCFG.getSuccsOf(block));
+            }
+        }
+        logIterations(blockCFG, iterations);
+    }
+
+    /**
+     * Transfers the in fact of given block through all its nodes.
+     *
+     * @return true if the out fact of the block changed, otherwise false.
+     */
+    private boolean transferBlockForward(CFG<Node> cfg, BasicBlock<Node> block,
+                                         Fact in, Fact out, ScratchFacts scratch) {
+        List<Node> nodes = block.getNodes();
+        int last = nodes.size() - 1;
+        for (int i = 0; i < last; ++i) {
+            Fact next = scratch.get(i);
+            analysis.transferNode(cfg, nodes.get(i), in, next);
+            in = next;
+        }
+        return analysis.transferNode(cfg, nodes.get(last), in, out);
+    }
+
+    @Override
+    protected void doSolveBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
+        BlockDataflowResult<Node, Fact> blockResult = (BlockDataflowResult<Node, Fact>) result;
+        BlockCFG<Node> blockCFG = blockResult.getBlockCFG();
+        WorkList<BasicBlock<Node>> workList = WorkList.make(blockCFG,
+                blockCFG.getEntry(), blockCFG.getExit(), order, false);
+        ScratchFacts scratch = new ScratchFacts(cfg);
+        int iterations = 0;
+        while (!workList.isEmpty()) {
+            BasicBlock<Node> block = workList.poll();
+            ++iterations;
+            if (block == blockCFG.getExit()) {
+                // IN[exit] is the boundary fact, which never changes
+                continue;
+            }
+            Fact out = blockResult.getBlockOutFact(block);
+            for (BasicBlock<Node> succ : blockCFG.getSuccsOf(block)) {
+                analysis.meetInto(blockResult.getBlockInFact(succ), out);
+            }
+            if (transferBlockBackward(cfg, block,
+                    blockResult.getBlockInFact(block), out, scratch)) {
+                workList.addAll(blockCFG.getPredsOf(block));
+            }
+        }
+        logIterations(blockCFG, iterations);
+    }
+
+    /**
+     * Transfers the out fact of given block backward through all its nodes.
+     *
+     * @return true if the in fact of the block changed, otherwise false.
+     */
+    private boolean transferBlockBackward(CFG<Node> cfg, BasicBlock<Node> block,
+                                          Fact in, Fact out, ScratchFacts scratch) {
+        List<Node> nodes = block.getNodes();
+        for (int i = nodes.size() - 1; i > 0; --i) {
+            Fact prev = scratch.get(i);
+            analysis.transferNode(cfg, nodes.get(i), prev, out);
+            out = prev;
+        }
+        return analysis.transferNode(cfg, nodes.get(0), in, out);
+    }
+
+    /**
+     * The facts between the nodes inside blocks are not kept during solving,
+     * thus a solve reuses two facts for them in turn: the i-th node of a block
+     * transfers from (or to, backward) the fact of the previous node into
+     * the other one. Analyses which cannot reset facts get new facts instead.
+     */
+    private class ScratchFacts {
+
+        private final CFG<Node> cfg;
+
+        private Fact even;
+
+        private Fact odd;
+
+        private ScratchFacts(CFG<Node> cfg) {
+            this.cfg = cfg;
+        }
+
+        /**
+         * @return the scratch fact for the i-th node of a block,
+         * reset to the initial fact.
+         */
+        private Fact get(int i) {
+            Fact fact = (i & 1) == 0 ? even : odd;
+            if (fact == null || !analysis.resetFact(cfg, fact)) {
+                fact = analysis.newInitialFact(cfg);
+                if ((i & 1) == 0) {
+                    even = fact;
+                } else {
+                    odd = fact;
+                }
+            }
+            return fact;
+        }
+    }
+
+    private void logIterations(BlockCFG<Node> blockCFG, int iterations) {
+        logger.debug("{} iterations ({} worklist, {} blocks of {} nodes) for {}",
+                iterations, order, blockCFG.getNumberOfNodes(),
+                blockCFG.getCFG().getNumberOfNodes(), blockCFG.getCFG().getMethod());
+    }
+}
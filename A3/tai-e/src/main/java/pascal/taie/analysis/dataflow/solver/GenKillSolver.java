@@ -0,0 +1,221 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.analysis.dataflow.analysis.GenKillAnalysis;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.SetFact;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.util.collection.Maps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Work-list solver for {@link GenKillAnalysis}, which represents the facts
+ * as bit vectors over the domain of the analysis.
+ * <p>
+ * The gen and kill sets of all nodes are converted to bit vectors before
+ * solving, and the facts of all nodes are kept in two flat {@code long}
+ * arrays, so that the iteration itself allocates nothing. The nodes are
+ * numbered in the given work-list order, and the work-list is a bit set
+ * over these numbers, from which the lowest number is always picked.
+ * The facts are converted to {@link SetFact}s once the iteration ends.
+ *
+ * @param <Node> type of CFG nodes
+ * @param <E>    type of the elements of data-flow facts
+ */
+class GenKillSolver<Node, E> extends Solver<Node, SetFact<E>> {
+
+    private static final Logger logger = LogManager.getLogger(GenKillSolver.class);
+
+    private final GenKillAnalysis<Node, E> genKill;
+
+    private final WorkListOrder order;
+
+    GenKillSolver(GenKillAnalysis<Node, E> analysis, WorkListOrder order) {
+        super(analysis);
+        this.genKill = analysis;
+        this.order = order;
+    }
+
+    /**
+     * The facts are created after solving, see {@link #solveBits}.
+     */
+    @Override
+    protected void initializeForward(CFG<Node> cfg, DataflowResult<Node, SetFact<E>> result) {
+    }
+
+    @Override
+    protected void initializeBackward(CFG<Node> cfg, DataflowResult<Node, SetFact<E>> result) {
+    }
+
+    @Override
+    protected void doSolveForward(CFG<Node> cfg, DataflowResult<Node, SetFact<E>> result) {
+        solveBits(cfg, result, true);
+    }
+
+    @Override
+    protected void doSolveBackward(CFG<Node> cfg, DataflowResult<Node, SetFact<E>> result) {
+        solveBits(cfg, result, false);
+    }
+
+    /**
+     * Solves the analysis on bit vectors and stores the resulting facts
+     * into given result. Below, the "before" fact of a node is its in fact
+     * for forward analyses and its out fact for backward analyses,
+     * and the "after" fact is the other one.
+     */
+    private void solveBits(CFG<Node> cfg, DataflowResult<Node, SetFact<E>> result,
+                           boolean forward) {
+        // number the nodes in work-list order
+        List<Node> nodes = switch (order) {
+            case FIFO -> new ArrayList<>(cfg.getNodes());
+            case RPO -> WorkList.reversePostOrder(
+                    cfg, cfg.getEntry(), cfg.getExit(), forward);
+            case WTO -> WorkList.getWTO(cfg, forward).getOrder();
+        };
+        int n = nodes.size();
+        Map<Node, Integer> ids = Maps.newMap(n);
+        for (int i = 0; i < n; ++i) {
+            ids.put(nodes.get(i), i);
+        }
+        int[][] sources = new int[n][];
+        int[][] targets = new int[n][];
+        for (int i = 0; i < n; ++i) {
+            Node node = nodes.get(i);
+            sources[i] = toIds(forward ? cfg.getPredsOf(node) : cfg.getSuccsOf(node), ids);
+            targets[i] = toIds(forward ? cfg.getSuccsOf(node) : cfg.getPredsOf(node), ids);
+        }
+        // number the elements of the domain
+        List<E> domain = genKill.getDomain(cfg);
+        Map<E, Integer> indexes = Maps.newMap(domain.size());
+        for (int i = 0; i < domain.size(); ++i) {
+            indexes.put(domain.get(i), i);
+        }
+        int words = (domain.size() + 63) >>> 6;
+        long[] gen = new long[n * words];
+        long[] kill = new long[n * words];
+        for (int i = 0; i < n; ++i) {
+            setBits(gen, i * words, genKill.getGen(cfg, nodes.get(i)), indexes);
+            setBits(kill, i * words, genKill.getKill(cfg, nodes.get(i)), indexes);
+        }
+        // initialize the facts, the domain is the initial fact
+        // of must analyses, and the boundary fact is empty
+        boolean may = genKill.isMay();
+        long[] before = new long[n * words];
+        long[] after = new long[n * words];
+        long lastWord = -1L >>> (-domain.size() & 63);
+        if (!may && words > 0) {
+            for (int i = 0; i < n; ++i) {
+                int base = i * words;
+                Arrays.fill(before, base, base + words, -1L);
+                Arrays.fill(after, base, base + words, -1L);
+                before[base + words - 1] = lastWord;
+                after[base + words - 1] = lastWord;
+            }
+        }
+        int boundary = ids.get(forward ? cfg.getEntry() : cfg.getExit());
+        Arrays.fill(after, boundary * words, (boundary + 1) * words, 0L);
+        if (!forward) {
+            Arrays.fill(before, boundary * words, (boundary + 1) * words, 0L);
+        }
+        // iterate
+        BitSet workList = new BitSet(n);
+        workList.set(0, n);
+        int iterations = 0;
+        for (int i = workList.nextSetBit(0); i >= 0; i = workList.nextSetBit(0)) {
+            workList.clear(i);
+            ++iterations;
+            if (i == boundary) {
+                // the boundary fact never changes
+                continue;
+            }
+            int base = i * words;
+            for (int w = 0; w < words; ++w) {
+                long fact = may ? 0L : (w == words - 1 ? lastWord : -1L);
+                for (int source : sources[i]) {
+                    fact = may ?
+                            fact | after[source * words + w] :
+                            fact & after[source * words + w];
+                }
+                before[base + w] = fact;
+            }
+            boolean changed = false;
+            for (int w = 0; w < words; ++w) {
+                long fact = gen[base + w] | (before[base + w] & ~kill[base + w]);
+                if (fact != after[base + w]) {
+                    after[base + w] = fact;
+                    changed = true;
+                }
+            }
+            if (changed) {
+                for (int target : targets[i]) {
+                    workList.set(target);
+                }
+            }
+        }
+        logger.debug("{} iterations ({} worklist, bit-vector) for {}",
+                iterations, order, cfg.getMethod());
+        // convert the bit vectors to facts
+        boolean keepBefore = !forward || !dropsInFacts();
+        boolean keepAfter = forward || !dropsInFacts();
+        for (int i = 0; i < n; ++i) {
+            Node node = nodes.get(i);
+            SetFact<E> beforeFact = keepBefore ? toFact(before, i * words, words, domain) : null;
+            SetFact<E> afterFact = keepAfter ? toFact(after, i * words, words, domain) : null;
+            result.setInFact(node, forward ? beforeFact : afterFact);
+            result.setOutFact(node, forward ? afterFact : beforeFact);
+        }
+    }
+
+    private static <Node> int[] toIds(Collection<Node> nodes, Map<Node, Integer> ids) {
+        return nodes.stream().mapToInt(ids::get).toArray();
+    }
+
+    private static <E> void setBits(long[] bits, int base,
+                                    Collection<E> elems, Map<E, Integer> indexes) {
+        for (E e : elems) {
+            int index = indexes.get(e);
+            bits[base + (index >>> 6)] |= 1L << index;
+        }
+    }
+
+    private static <E> SetFact<E> toFact(long[] bits, int base, int words, List<E> domain) {
+        SetFact<E> fact = new SetFact<>();
+        for (int w = 0; w < words; ++w) {
+            long word = bits[base + w];
+            while (word != 0) {
+                fact.add(domain.get((w << 6) + Long.numberOfTrailingZeros(word)));
+                word &= word - 1;
+            }
+        }
+        return fact;
+    }
+}
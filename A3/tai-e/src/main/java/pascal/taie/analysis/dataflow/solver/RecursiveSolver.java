@@ -0,0 +1,139 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.util.graph.WeakTopologicalOrder;
+import pascal.taie.util.graph.WeakTopologicalOrder.Element;
+
+/**
+ * Solver which implements the recursive iteration strategy of Bourdoncle
+ * over the weak topological order (WTO) of the CFG: the nodes are visited
+ * in the WTO, and each component (loop) is iterated until its head
+ * stabilizes before any node after the component is visited. Thus, inner
+ * loops are stabilized before their enclosing loops, and the nodes after
+ * a loop are visited only once the loop has converged.
+ */
+class RecursiveSolver<Node, Fact> extends Solver<Node, Fact> {
+
+    private static final Logger logger = LogManager.getLogger(RecursiveSolver.class);
+
+    RecursiveSolver(DataflowAnalysis<Node, Fact> analysis) {
+        super(analysis);
+    }
+
+    @Override
+    protected void doSolveForward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
+        int iterations = 0;
+        for (Element<Node> element : WorkList.getWTO(cfg, true).getElements()) {
+            iterations += stabilize(element, node -> updateForward(cfg, node, result));
+        }
+        logIterations(cfg, iterations);
+    }
+
+    /**
+     * Recomputes the in and out facts of given node.
+     *
+     * @return true if the out fact changed, otherwise false.
+     */
+    private boolean updateForward(CFG<Node> cfg, Node node, DataflowResult<Node, Fact> result) {
+        if (cfg.isEntry(node)) {
+            // OUT[entry] is the boundary fact, which never changes
+            return false;
+        }
+        Fact in = result.getInFact(node);
+        for (Node pred : cfg.getPredsOf(node)) {
+            analysis.meetInto(result.getOutFact(pred), in);
+        }
+        return analysis.transferNode(cfg, node, in, result.getOutFact(node));
+    }
+
+    @Override
+    protected void doSolveBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
+        int iterations = 0;
+        for (Element<Node> element : WorkList.getWTO(cfg, false).getElements()) {
+            iterations += stabilize(element, node -> updateBackward(cfg, node, result));
+        }
+        logIterations(cfg, iterations);
+    }
+
+    /**
+     * Recomputes the out and in facts of given node.
+     *
+     * @return true if the in fact changed, otherwise false.
+     */
+    private boolean updateBackward(CFG<Node> cfg, Node node, DataflowResult<Node, Fact> result) {
+        if (cfg.isExit(node)) {
+            // IN[exit] is the boundary fact, which never changes
+            return false;
+        }
+        Fact out = result.getOutFact(node);
+        for (Node succ : cfg.getSuccsOf(node)) {
+            analysis.meetInto(result.getInFact(succ), out);
+        }
+        return analysis.transferNode(cfg, node, result.getInFact(node), out);
+    }
+
+    /**
+     * Visits given WTO element. If the element is a component, iterates
+     * its head and body until the head does not change any more.
+     *
+     * @return the number of node visits.
+     */
+    private int stabilize(Element<Node> element, Updater<Node> updater) {
+        int iterations = 1;
+        updater.update(element.getNode());
+        if (element.isComponent()) {
+            boolean changed;
+            do {
+                for (Element<Node> e : element.getBody()) {
+                    iterations += stabilize(e, updater);
+                }
+                changed = updater.update(element.getNode());
+                ++iterations;
+            } while (changed);
+        }
+        return iterations;
+    }
+
+    private void logIterations(CFG<Node> cfg, int iterations) {
+        logger.debug("{} iterations (recursive, {} nodes) for {}",
+                iterations, cfg.getNumberOfNodes(), cfg.getMethod());
+    }
+
+    /**
+     * Recomputes the facts of a node.
+     */
+    @FunctionalInterface
+    private interface Updater<Node> {
+
+        /**
+         * @return true if the facts flowing out of the node changed.
+         */
+        boolean update(Node node);
+    }
+}
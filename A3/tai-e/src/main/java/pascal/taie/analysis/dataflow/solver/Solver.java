@@ -23,8 +23,13 @@
 package pascal.taie.analysis.dataflow.solver;
 
 import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
+import pascal.taie.analysis.dataflow.analysis.GenKillAnalysis;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.StmtDataflowResult;
 import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.config.AnalysisOptions;
+import pascal.taie.config.ConfigException;
+import pascal.taie.ir.stmt.Stmt;
 
 /**
  * Base class for data-flow analysis solver, which provides common
@@ -37,6 +42,12 @@ public abstract class Solver<Node, Fact> {
 
     protected final DataflowAnalysis<Node, Fact> analysis;
 
+    /**
+     * Whether to discard the in-facts after solving, controlled by
+     * option {@code drop-in-facts}.
+     */
+    private boolean dropInFacts;
+
     protected Solver(DataflowAnalysis<Node, Fact> analysis) {
         this.analysis = analysis;
     }
@@ -46,7 +57,67 @@ public abstract class Solver<Node, Fact> {
      */
     public static <Node, Fact> Solver<Node, Fact> makeSolver(
             DataflowAnalysis<Node, Fact> analysis) {
-        return new WorkListSolver<>(analysis);
+        return new WorkListSolver<>(analysis, WorkListOrder.RPO);
+    }
+
+    /**
+     * Static factory method to create a new solver for given analysis,
+     * configured by the options of the analysis, i.e., {@code strategy},
+     * {@code worklist-order}, {@code basic-blocks}, {@code bit-vector}
+     * and {@code drop-in-facts}.
+     * <p>
+     * Strategy {@code worklist} (the default) selects the work-list solvers,
+     * and strategy {@code recursive} selects {@link RecursiveSolver}, which
+     * neither uses a work-list nor supports basic blocks.
+     * Option {@code bit-vector} selects {@link GenKillSolver} for
+     * {@link GenKillAnalysis}, which is a work-list solver of its own.
+     */
+    @SuppressWarnings("unchecked")
+    public static <Node, Fact> Solver<Node, Fact> makeSolver(
+            DataflowAnalysis<Node, Fact> analysis, AnalysisOptions options) {
+        String strategy = options.getString("strategy");
+        boolean basicBlocks = options.getBooleanOrDefault("basic-blocks", false);
+        boolean bitVector = options.getBooleanOrDefault("bit-vector", false);
+        if (bitVector) {
+            if (!(analysis instanceof GenKillAnalysis)) {
+                throw new ConfigException(
+                        "bit-vector is only supported by gen/kill analyses");
+            }
+            if (basicBlocks || (strategy != null && !strategy.equals("worklist"))) {
+                throw new ConfigException(
+                        "bit-vector does not support basic-blocks or strategy " + strategy);
+            }
+        }
+        Solver<Node, Fact> solver;
+        if (strategy == null || strategy.equals("worklist")) {
+            WorkListOrder order = WorkListOrder.of(options.getString("worklist-order"));
+            if (bitVector) {
+                solver = (Solver<Node, Fact>) new GenKillSolver<>(
+                        (GenKillAnalysis<Node, ?>) analysis, order);
+            } else {
+                solver = basicBlocks ?
+                        new BlockSolver<>(analysis, order) :
+                        new WorkListSolver<>(analysis, order);
+            }
+        } else if (strategy.equals("recursive")) {
+            if (basicBlocks) {
+                throw new ConfigException(
+                        "strategy recursive does not support basic-blocks");
+            }
+            solver = new RecursiveSolver<>(analysis);
+        } else {
+            throw new ConfigException("Unknown strategy: " + strategy
+                    + ", expected worklist or recursive");
+        }
+        solver.dropInFacts = options.getBooleanOrDefault("drop-in-facts", false);
+        return solver;
+    }
+
+    /**
+     * @return true if this solver discards the in-facts after solving.
+     */
+    boolean dropsInFacts() {
+        return dropInFacts;
     }
 
     /**
@@ -58,6 +129,9 @@ public abstract class Solver<Node, Fact> {
     public DataflowResult<Node, Fact> solve(CFG<Node> cfg) {
         DataflowResult<Node, Fact> result = initialize(cfg);
         doSolve(cfg, result);
+        if (dropInFacts) {
+            result.dropInFacts();
+        }
         return result;
     }
 
@@ -67,7 +141,7 @@ public abstract class Solver<Node, Fact> {
      * @return the initialized data-flow result
      */
     private DataflowResult<Node, Fact> initialize(CFG<Node> cfg) {
-        DataflowResult<Node, Fact> result = new DataflowResult<>();
+        DataflowResult<Node, Fact> result = newResult(cfg);
         if (analysis.isForward()) {
             initializeForward(cfg, result);
         } else {
@@ -76,22 +150,33 @@ public abstract class Solver<Node, Fact> {
         return result;
     }
 
+    /**
+     * @return a new empty data-flow result for given CFG.
+     */
+    protected DataflowResult<Node, Fact> newResult(CFG<Node> cfg) {
+        return newNodeResult(cfg);
+    }
+
+    /**
+     * @return a new empty data-flow result for the nodes of given CFG,
+     * which is array-based if the nodes of the CFG are {@link Stmt}s.
+     */
+    @SuppressWarnings("unchecked")
+    static <Node, Fact> DataflowResult<Node, Fact> newNodeResult(CFG<Node> cfg) {
+        if (cfg.getEntry() instanceof Stmt) {
+            return (DataflowResult<Node, Fact>)
+                    new StmtDataflowResult<Fact>((CFG<Stmt>) cfg);
+        } else {
+            return new DataflowResult<>();
+        }
+    }
+
     protected void initializeForward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
-        // 算法前三行
-        // OUT[entry] = ∅;
-        result.setOutFact(cfg.getEntry(), analysis.newBoundaryFact(cfg));
-        //for (each basic block B\entry)
-        //  OUT[B] = ∅
-        cfg.forEach((Node node) -> {
-            if (node != cfg.getEntry()) {
-                result.setOutFact(node, analysis.newInitialFact());
-            }
-        });
-//        for(Node node : cfg){
-//            if(node != cfg.getEntry()){
-//                result.setOutFact(node, analysis.newInitialFact());
-//            }
-//        }
+        for (Node node : cfg) {
+            result.setInFact(node, analysis.newInitialFact(cfg));
+            result.setOutFact(node, cfg.isEntry(node) ?
+                    analysis.newBoundaryFact(cfg) : analysis.newInitialFact(cfg));
+        }
     }
 
     protected void initializeBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result){
@@ -102,8 +187,8 @@ public abstract class Solver<Node, Fact> {
         result.setOutFact(exit_node, analysis.newBoundaryFact(cfg));
         for (Node node : cfg) {
             if (!cfg.isExit(node)) {
-                result.setOutFact(node, analysis.newInitialFact());
-                result.setInFact(node, analysis.newInitialFact());
+                result.setOutFact(node, analysis.newInitialFact(cfg));
+                result.setInFact(node, analysis.newInitialFact(cfg));
             }
         }
 //        result.setInFact(cfg.getExit(), analysis.newBoundaryFact(cfg));
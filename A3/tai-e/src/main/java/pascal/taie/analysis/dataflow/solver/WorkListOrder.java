@@ -0,0 +1,74 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import pascal.taie.config.ConfigException;
+
+import java.util.Locale;
+
+/**
+ * Orders in which {@link WorkListSolver} picks nodes from its work-list,
+ * selected by option {@code worklist-order}.
+ */
+public enum WorkListOrder {
+
+    /**
+     * First-in, first-out.
+     */
+    FIFO,
+
+    /**
+     * Reverse postorder of the CFG for forward analyses, and reverse
+     * postorder of the reverse CFG for backward analyses, so that a node
+     * is processed after its predecessors (successors for backward
+     * analyses) as far as possible.
+     */
+    RPO,
+
+    /**
+     * Weak topological order, in which the nodes of each loop are
+     * laid out consecutively after the loop head.
+     */
+    WTO;
+
+    /**
+     * @return the order of given name, or {@link #RPO} if name is null.
+     * @throws ConfigException if name is not a valid order
+     */
+    public static WorkListOrder of(String name) {
+        if (name == null) {
+            return RPO;
+        }
+        try {
+            return valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ConfigException("Unknown worklist-order: " + name
+                    + ", expected fifo, rpo or wto");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.cfg;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Basic block of a {@link BlockCFG}, i.e., a maximal sequence of CFG nodes
+ * such that control enters only at the first node and leaves only at the
+ * last node.
+ *
+ * @param <N> type of CFG nodes
+ */
+public class BasicBlock<N> {
+
+    private final int index;
+
+    private final List<N> nodes;
+
+    private Set<BasicBlock<N>> preds = Set.of();
+
+    private Set<BasicBlock<N>> succs = Set.of();
+
+    BasicBlock(int index, List<N> nodes) {
+        this.index = index;
+        this.nodes = Collections.unmodifiableList(nodes);
+    }
+
+    /**
+     * @return the index of this block in its {@link BlockCFG}.
+     * The blocks of a {@link BlockCFG} are indexed from 0 consecutively.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * @return the nodes of this block in control-flow order.
+     */
+    public List<N> getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return the first node of this block.
+     */
+    public N getFirst() {
+        return nodes.get(0);
+    }
+
+    /**
+     * @return the last node of this block.
+     */
+    public N getLast() {
+        return nodes.get(nodes.size() - 1);
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+
+    Set<BasicBlock<N>> getPreds() {
+        return preds;
+    }
+
+    void setPreds(Set<BasicBlock<N>> preds) {
+        this.preds = Collections.unmodifiableSet(preds);
+    }
+
+    Set<BasicBlock<N>> getSuccs() {
+        return succs;
+    }
+
+    void setSuccs(Set<BasicBlock<N>> succs) {
+        this.succs = Collections.unmodifiableSet(succs);
+    }
+
+    @Override
+    public String toString() {
+        return "B" + index + nodes;
+    }
+}
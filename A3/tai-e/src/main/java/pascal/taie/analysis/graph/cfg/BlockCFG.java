@@ -0,0 +1,206 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.cfg;
+
+import pascal.taie.ir.IR;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.graph.Graph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Basic-block view of a {@link CFG}, which condenses every straight-line
+ * chain of nodes into one {@link BasicBlock}.
+ * <p>
+ * A node starts a new block if it is the entry or the exit, if it does
+ * not have exactly one predecessor, or if its predecessor has other
+ * successors (or is the entry). The entry and the exit of the CFG thus
+ * always form singleton blocks, so that the boundary facts of data-flow
+ * analyses can be attached to them as usual.
+ *
+ * @param <N> type of CFG nodes
+ */
+public class BlockCFG<N> implements Graph<BasicBlock<N>> {
+
+    /**
+     * Key of the block view cached in the {@link IR}.
+     */
+    public static final String ID = "block-cfg";
+
+    private final CFG<N> cfg;
+
+    private final List<BasicBlock<N>> blocks = new ArrayList<>();
+
+    private final Map<N, BasicBlock<N>> blockOf;
+
+    private final Set<BasicBlock<N>> nodes;
+
+    public BlockCFG(CFG<N> cfg) {
+        this.cfg = cfg;
+        this.blockOf = Maps.newMap(cfg.getNumberOfNodes());
+        for (N node : cfg) {
+            if (isLeader(node)) {
+                buildBlock(node);
+            }
+        }
+        // nodes on a cycle which cannot be entered from elsewhere
+        // have no leader, and each such cycle starts a block of its own
+        for (N node : cfg) {
+            if (!blockOf.containsKey(node)) {
+                buildBlock(node);
+            }
+        }
+        for (BasicBlock<N> block : blocks) {
+            Set<BasicBlock<N>> preds = new LinkedHashSet<>();
+            cfg.getPredsOf(block.getFirst()).forEach(p -> preds.add(blockOf.get(p)));
+            block.setPreds(preds);
+            Set<BasicBlock<N>> succs = new LinkedHashSet<>();
+            cfg.getSuccsOf(block.getLast()).forEach(s -> succs.add(blockOf.get(s)));
+            block.setSuccs(succs);
+        }
+        this.nodes = Collections.unmodifiableSet(new LinkedHashSet<>(blocks));
+    }
+
+    /**
+     * @return the block view of given CFG, which is built on the first
+     * request and then cached in the IR of the CFG.
+     */
+    @SuppressWarnings("unchecked")
+    public static <N> BlockCFG<N> of(CFG<N> cfg) {
+        IR ir = cfg.getIR();
+        synchronized (ir) {
+            BlockCFG<N> blockCFG = ir.getResult(ID);
+            if (blockCFG == null || blockCFG.cfg != cfg) {
+                blockCFG = new BlockCFG<>(cfg);
+                ir.storeResult(ID, blockCFG);
+            }
+            return blockCFG;
+        }
+    }
+
+    private boolean isLeader(N node) {
+        if (cfg.isEntry(node) || cfg.isExit(node)) {
+            return true;
+        }
+        Set<N> preds = cfg.getPredsOf(node);
+        if (preds.size() != 1) {
+            return true;
+        }
+        N pred = preds.iterator().next();
+        return cfg.isEntry(pred) || cfg.getSuccsOf(pred).size() != 1;
+    }
+
+    private void buildBlock(N leader) {
+        List<N> chain = new ArrayList<>();
+        N node = leader;
+        while (true) {
+            chain.add(node);
+            if (cfg.isEntry(node)) {
+                break;
+            }
+            Set<N> succs = cfg.getSuccsOf(node);
+            if (succs.size() != 1) {
+                break;
+            }
+            N succ = succs.iterator().next();
+            if (succ == leader || isLeader(succ) || blockOf.containsKey(succ)) {
+                break;
+            }
+            node = succ;
+        }
+        BasicBlock<N> block = new BasicBlock<>(blocks.size(), chain);
+        blocks.add(block);
+        chain.forEach(n -> blockOf.put(n, block));
+    }
+
+    /**
+     * @return the CFG this block view is built on.
+     */
+    public CFG<N> getCFG() {
+        return cfg;
+    }
+
+    /**
+     * @return the block which consists of only the entry node of the CFG.
+     */
+    public BasicBlock<N> getEntry() {
+        return blockOf.get(cfg.getEntry());
+    }
+
+    /**
+     * @return the block which consists of only the exit node of the CFG.
+     */
+    public BasicBlock<N> getExit() {
+        return blockOf.get(cfg.getExit());
+    }
+
+    /**
+     * @return the block containing given CFG node.
+     */
+    public BasicBlock<N> getBlockOf(N node) {
+        return blockOf.get(node);
+    }
+
+    /**
+     * @return all blocks, ordered by their indexes.
+     */
+    public List<BasicBlock<N>> getBlocks() {
+        return Collections.unmodifiableList(blocks);
+    }
+
+    @Override
+    public boolean hasNode(BasicBlock<N> block) {
+        return block.getIndex() < blocks.size() &&
+                blocks.get(block.getIndex()) == block;
+    }
+
+    @Override
+    public boolean hasEdge(BasicBlock<N> source, BasicBlock<N> target) {
+        return source.getSuccs().contains(target);
+    }
+
+    @Override
+    public Set<BasicBlock<N>> getPredsOf(BasicBlock<N> block) {
+        return block.getPreds();
+    }
+
+    @Override
+    public Set<BasicBlock<N>> getSuccsOf(BasicBlock<N> block) {
+        return block.getSuccs();
+    }
+
+    @Override
+    public Set<BasicBlock<N>> getNodes() {
+        return nodes;
+    }
+
+    @Override
+    public int getNumberOfNodes() {
+        return blocks.size();
+    }
+}
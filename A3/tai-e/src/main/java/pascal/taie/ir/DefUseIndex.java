@@ -0,0 +1,226 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.ir;
+
+import pascal.taie.ir.exp.ArithmeticExp;
+import pascal.taie.ir.exp.ArrayAccess;
+import pascal.taie.ir.exp.CastExp;
+import pascal.taie.ir.exp.FieldAccess;
+import pascal.taie.ir.exp.LValue;
+import pascal.taie.ir.exp.NewExp;
+import pascal.taie.ir.exp.RValue;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.AssignStmt;
+import pascal.taie.ir.stmt.Stmt;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Variables defined and used by each statement of an IR, indexed by
+ * {@link Stmt#getIndex()}, so that analyses which query them repeatedly
+ * (e.g., in every fixed-point iteration) need not call
+ * {@link Stmt#getDef()} and {@link Stmt#getUses()}, which allocate
+ * on every call.
+ * <p>
+ * Statements whose indexes are out of the range of the IR, e.g., the
+ * entry and exit nodes of CFGs, define and use no variables.
+ */
+public class DefUseIndex {
+
+    /**
+     * Key of the index cached in the {@link IR}.
+     */
+    public static final String ID = "def-use-index";
+
+    private static final int[] NO_USES = new int[0];
+
+    private final IR ir;
+
+    /**
+     * defs[i] is the index of the variable defined by the i-th statement,
+     * or -1 if the statement does not define a variable.
+     */
+    private final int[] defs;
+
+    /**
+     * uses[i] are the indexes of the (distinct) variables used by
+     * the i-th statement.
+     */
+    private final int[][] uses;
+
+    /**
+     * {@link #defs} and {@link #uses} as lists of variables, for analyses
+     * which work on variables instead of their indexes.
+     */
+    private final List<Var>[] defVars;
+
+    private final List<Var>[] useVars;
+
+    /**
+     * The i-th bit is set if the i-th statement assigns a variable
+     * with an expression which has no side effect.
+     */
+    private final BitSet sideEffectFree;
+
+    @SuppressWarnings("unchecked")
+    public DefUseIndex(IR ir) {
+        this.ir = ir;
+        List<Stmt> stmts = ir.getStmts();
+        int n = stmts.size();
+        this.defs = new int[n];
+        this.uses = new int[n][];
+        this.defVars = new List[n];
+        this.useVars = new List[n];
+        this.sideEffectFree = new BitSet(n);
+        for (Stmt stmt : stmts) {
+            int i = stmt.getIndex();
+            defs[i] = stmt.getDef()
+                    .filter(lvalue -> lvalue instanceof Var)
+                    .map(var -> ((Var) var).getIndex())
+                    .orElse(-1);
+            uses[i] = stmt.getUses()
+                    .stream()
+                    .filter(use -> use instanceof Var)
+                    .mapToInt(var -> ((Var) var).getIndex())
+                    .distinct()
+                    .toArray();
+            if (uses[i].length == 0) {
+                uses[i] = NO_USES;
+            }
+            defVars[i] = defs[i] != -1 ? List.of(ir.getVar(defs[i])) : List.of();
+            useVars[i] = Arrays.stream(uses[i]).mapToObj(ir::getVar).toList();
+            if (stmt instanceof AssignStmt<?, ?> assign &&
+                    assign.getLValue() instanceof Var &&
+                    hasNoSideEffect(assign.getRValue())) {
+                sideEffectFree.set(i);
+            }
+        }
+    }
+
+    /**
+     * @return the index of given IR, which is built on the first request
+     * and then cached in the IR.
+     */
+    public static DefUseIndex of(IR ir) {
+        synchronized (ir) {
+            DefUseIndex index = ir.getResult(ID);
+            if (index == null) {
+                index = new DefUseIndex(ir);
+                ir.storeResult(ID, index);
+            }
+            return index;
+        }
+    }
+
+    private boolean inRange(Stmt stmt) {
+        return stmt.getIndex() < defs.length;
+    }
+
+    /**
+     * @return the variable defined by given statement, or null if the
+     * statement does not define a variable (e.g., it stores to a field).
+     */
+    public Var getDef(Stmt stmt) {
+        int def = inRange(stmt) ? defs[stmt.getIndex()] : -1;
+        return def != -1 ? ir.getVar(def) : null;
+    }
+
+    /**
+     * @return the indexes of the variables used by given statement.
+     * The returned array is shared and must not be modified.
+     */
+    public int[] getUses(Stmt stmt) {
+        return inRange(stmt) ? uses[stmt.getIndex()] : NO_USES;
+    }
+
+    /**
+     * @return the variable defined by given statement as a list,
+     * which is empty if the statement does not define a variable.
+     * The returned list is shared and unmodifiable.
+     */
+    public List<Var> getDefVars(Stmt stmt) {
+        return inRange(stmt) ? defVars[stmt.getIndex()] : List.of();
+    }
+
+    /**
+     * @return the variables used by given statement.
+     * The returned list is shared and unmodifiable.
+     */
+    public List<Var> getUseVars(Stmt stmt) {
+        return inRange(stmt) ? useVars[stmt.getIndex()] : List.of();
+    }
+
+    /**
+     * @return true if given statement assigns a variable with an expression
+     * which has no side effect, i.e., removing the statement does not change
+     * the behavior of the program if the variable is not used later.
+     */
+    public boolean isSideEffectFreeAssign(Stmt stmt) {
+        return inRange(stmt) && sideEffectFree.get(stmt.getIndex());
+    }
+
+    /**
+     * @return the IR this index is built for.
+     */
+    public IR getIR() {
+        return ir;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < defs.length; ++i) {
+            sb.append(i).append(": def=")
+                    .append(defs[i] != -1 ? ir.getVar(defs[i]) : "-")
+                    .append(" uses=")
+                    .append(Arrays.stream(uses[i]).mapToObj(ir::getVar).toList())
+                    .append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @return true if given RValue has no side effect, otherwise false.
+     */
+    private static boolean hasNoSideEffect(RValue rvalue) {
+        // new expression modifies the heap
+        if (rvalue instanceof NewExp ||
+                // cast may trigger ClassCastException
+                rvalue instanceof CastExp ||
+                // static field access may trigger class initialization
+                // instance field access may trigger NPE
+                rvalue instanceof FieldAccess ||
+                // array access may trigger NPE
+                rvalue instanceof ArrayAccess) {
+            return false;
+        }
+        if (rvalue instanceof ArithmeticExp) {
+            ArithmeticExp.Op op = ((ArithmeticExp) rvalue).getOperator();
+            // may trigger DivideByZeroException
+            return op != ArithmeticExp.Op.DIV && op != ArithmeticExp.Op.REM;
+        }
+        return true;
+    }
+}
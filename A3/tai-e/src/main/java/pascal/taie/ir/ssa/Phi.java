@@ -0,0 +1,99 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.ir.ssa;
+
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.util.collection.Maps;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Represents a phi function placed at a join point of the CFG.
+ * The phi function selects the version of its variable which flows
+ * in from each predecessor.
+ */
+public class Phi {
+
+    private final Var var;
+
+    /**
+     * The node (statement) where this phi function is placed.
+     */
+    private final Stmt node;
+
+    private SSAVar result;
+
+    /**
+     * Maps each predecessor of {@link #node} to the version flowing
+     * in from it. The predecessors from which no version of the
+     * variable flows in (i.e., the variable is undefined) are absent.
+     */
+    private final Map<Stmt, SSAVar> operands = Maps.newHybridMap();
+
+    Phi(Var var, Stmt node) {
+        this.var = var;
+        this.node = node;
+    }
+
+    void setResult(SSAVar result) {
+        this.result = result;
+    }
+
+    void setOperand(Stmt pred, SSAVar operand) {
+        operands.put(pred, operand);
+    }
+
+    public Var getVar() {
+        return var;
+    }
+
+    public Stmt getNode() {
+        return node;
+    }
+
+    /**
+     * @return the version defined by this phi function.
+     */
+    public SSAVar getResult() {
+        return result;
+    }
+
+    /**
+     * @return the version flowing in from given predecessor,
+     * or null if the variable is undefined on that path.
+     */
+    public SSAVar getOperand(Stmt pred) {
+        return operands.get(pred);
+    }
+
+    public Map<Stmt, SSAVar> getOperands() {
+        return Collections.unmodifiableMap(operands);
+    }
+
+    @Override
+    public String toString() {
+        return result + " = phi" + operands.values();
+    }
+}
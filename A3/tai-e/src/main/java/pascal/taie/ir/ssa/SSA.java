@@ -0,0 +1,299 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.ir.ssa;
+
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.ir.exp.RValue;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
+import pascal.taie.util.graph.DominatorTree;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Static single assignment (SSA) form of the variables of a method.
+ * <p>
+ * The IR itself is left unchanged: this class is an overlay on the CFG,
+ * which records the phi functions placed at the join points, the version
+ * defined by each statement, and the version each use refers to.
+ * The construction follows Cytron et al., "Efficiently Computing Static
+ * Single Assignment Form and the Control Dependence Graph", i.e., phi
+ * functions are placed at the iterated dominance frontiers of the
+ * definitions, and the variables are then renamed along the dominator tree.
+ * <p>
+ * The parameters are defined at the entry of the CFG. The statements
+ * unreachable from the entry are not in SSA form.
+ */
+public class SSA {
+
+    private final CFG<Stmt> cfg;
+
+    private final DominatorTree<Stmt> domTree;
+
+    private final List<SSAVar> ssaVars = new ArrayList<>();
+
+    private final MultiMap<Stmt, Phi> phis = Maps.newMultiMap();
+
+    /**
+     * Versions defined by the statements. The entry may define
+     * several versions (one per parameter), which are kept in
+     * {@link #entryDefs} instead.
+     */
+    private final Map<Stmt, SSAVar> defs = Maps.newMap();
+
+    private final Map<Var, SSAVar> entryDefs = Maps.newHybridMap();
+
+    /**
+     * The versions referred to by the uses in each statement.
+     */
+    private final Map<Stmt, Map<Var, SSAVar>> uses = Maps.newMap();
+
+    private final MultiMap<SSAVar, Stmt> stmtUsers = Maps.newMultiMap();
+
+    private final MultiMap<SSAVar, Phi> phiUsers = Maps.newMultiMap();
+
+    private SSA(CFG<Stmt> cfg) {
+        this.cfg = cfg;
+        this.domTree = new DominatorTree<>(cfg, cfg.getEntry());
+    }
+
+    /**
+     * Builds SSA form for the variables of given CFG that satisfy
+     * the filter; other variables are ignored.
+     */
+    public static SSA build(CFG<Stmt> cfg, Predicate<Var> filter) {
+        SSA ssa = new SSA(cfg);
+        ssa.placePhis(filter);
+        ssa.rename(filter);
+        return ssa;
+    }
+
+    private void placePhis(Predicate<Var> filter) {
+        MultiMap<Var, Stmt> defSites = Maps.newMultiMap();
+        for (Var param : cfg.getIR().getParams()) {
+            if (filter.test(param)) {
+                defSites.put(param, cfg.getEntry());
+            }
+        }
+        for (Stmt stmt : domTree.getNodes()) {
+            Var def = getDefVar(stmt, filter);
+            if (def != null) {
+                defSites.put(def, stmt);
+            }
+        }
+        for (Var var : defSites.keySet()) {
+            Set<Stmt> hasPhi = Sets.newSet();
+            Set<Stmt> sites = defSites.get(var);
+            Deque<Stmt> workList = new ArrayDeque<>(sites);
+            Set<Stmt> visited = Sets.newSet();
+            visited.addAll(sites);
+            while (!workList.isEmpty()) {
+                Stmt site = workList.poll();
+                for (Stmt df : domTree.getDominanceFrontier(site)) {
+                    if (hasPhi.add(df)) {
+                        phis.put(df, new Phi(var, df));
+                        if (visited.add(df)) {
+                            workList.add(df);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Renames the variables by a depth-first traversal of the dominator
+     * tree, which is done iteratively so that long methods do not
+     * overflow the stack.
+     */
+    private void rename(Predicate<Var> filter) {
+        Map<Var, Deque<SSAVar>> stacks = Maps.newMap();
+        Deque<Stmt> nodes = new ArrayDeque<>();
+        Deque<Iterator<Stmt>> children = new ArrayDeque<>();
+        Deque<List<Var>> pushed = new ArrayDeque<>();
+        Stmt entry = cfg.getEntry();
+        enter(entry, filter, stacks, nodes, children, pushed);
+        while (!nodes.isEmpty()) {
+            Iterator<Stmt> it = children.peek();
+            if (it.hasNext()) {
+                enter(it.next(), filter, stacks, nodes, children, pushed);
+            } else {
+                nodes.pop();
+                children.pop();
+                pushed.pop().forEach(v -> stacks.get(v).pop());
+            }
+        }
+    }
+
+    private void enter(Stmt node, Predicate<Var> filter,
+                       Map<Var, Deque<SSAVar>> stacks, Deque<Stmt> nodes,
+                       Deque<Iterator<Stmt>> children, Deque<List<Var>> pushed) {
+        List<Var> defined = new ArrayList<>(2);
+        // phi functions define their versions at the beginning of node
+        for (Phi phi : phis.get(node)) {
+            SSAVar result = newSSAVar(phi.getVar(), node, phi);
+            phi.setResult(result);
+            push(stacks, result, defined);
+        }
+        if (node == cfg.getEntry()) {
+            for (Var param : cfg.getIR().getParams()) {
+                if (filter.test(param)) {
+                    SSAVar v = newSSAVar(param, node, null);
+                    entryDefs.put(param, v);
+                    push(stacks, v, defined);
+                }
+            }
+        }
+        // uses refer to the versions reaching node
+        for (RValue use : node.getUses()) {
+            if (use instanceof Var var && filter.test(var)) {
+                SSAVar v = top(stacks, var);
+                if (v != null) {
+                    uses.computeIfAbsent(node, __ -> Maps.newHybridMap())
+                            .put(var, v);
+                    stmtUsers.put(v, node);
+                }
+            }
+        }
+        Var def = getDefVar(node, filter);
+        if (def != null) {
+            SSAVar v = newSSAVar(def, node, null);
+            defs.put(node, v);
+            push(stacks, v, defined);
+        }
+        // fill in the operands of the phi functions of successors
+        for (Stmt succ : cfg.getSuccsOf(node)) {
+            for (Phi phi : phis.get(succ)) {
+                SSAVar v = top(stacks, phi.getVar());
+                if (v != null) {
+                    phi.setOperand(node, v);
+                    phiUsers.put(v, phi);
+                }
+            }
+        }
+        nodes.push(node);
+        children.push(domTree.getChildren(node).iterator());
+        pushed.push(defined);
+    }
+
+    private SSAVar newSSAVar(Var var, Stmt definition, Phi phi) {
+        SSAVar v = new SSAVar(var, ssaVars.size(), definition, phi);
+        ssaVars.add(v);
+        return v;
+    }
+
+    private static void push(Map<Var, Deque<SSAVar>> stacks,
+                             SSAVar v, List<Var> defined) {
+        stacks.computeIfAbsent(v.getVar(), __ -> new ArrayDeque<>()).push(v);
+        defined.add(v.getVar());
+    }
+
+    private static SSAVar top(Map<Var, Deque<SSAVar>> stacks, Var var) {
+        Deque<SSAVar> stack = stacks.get(var);
+        return stack == null ? null : stack.peek();
+    }
+
+    private static Var getDefVar(Stmt stmt, Predicate<Var> filter) {
+        return stmt.getDef().orElse(null) instanceof Var var && filter.test(var) ?
+                var : null;
+    }
+
+    public CFG<Stmt> getCFG() {
+        return cfg;
+    }
+
+    public DominatorTree<Stmt> getDominatorTree() {
+        return domTree;
+    }
+
+    /**
+     * @return all versions in this SSA form, ordered by their indexes.
+     */
+    public List<SSAVar> getSSAVars() {
+        return Collections.unmodifiableList(ssaVars);
+    }
+
+    /**
+     * @return the phi functions placed at given node.
+     */
+    public Set<Phi> getPhis(Stmt node) {
+        return phis.get(node);
+    }
+
+    /**
+     * @return the version defined by given statement, or null if the
+     * statement does not define any (tracked) variable.
+     */
+    public SSAVar getDef(Stmt stmt) {
+        return defs.get(stmt);
+    }
+
+    /**
+     * @return the versions of the parameters, which are defined at the entry.
+     */
+    public Map<Var, SSAVar> getEntryDefs() {
+        return Collections.unmodifiableMap(entryDefs);
+    }
+
+    /**
+     * @return the version which the use of given variable in given
+     * statement refers to, or null if the variable is undefined there.
+     */
+    public SSAVar getUse(Stmt stmt, Var var) {
+        Map<Var, SSAVar> map = uses.get(stmt);
+        return map == null ? null : map.get(var);
+    }
+
+    /**
+     * @return the versions referred to by the uses in given statement.
+     */
+    public Map<Var, SSAVar> getUses(Stmt stmt) {
+        Map<Var, SSAVar> map = uses.get(stmt);
+        return map == null ? Map.of() : Collections.unmodifiableMap(map);
+    }
+
+    /**
+     * @return the statements using given version.
+     */
+    public Set<Stmt> getStmtUsers(SSAVar v) {
+        return stmtUsers.get(v);
+    }
+
+    /**
+     * @return the phi functions using given version as an operand.
+     */
+    public Set<Phi> getPhiUsers(SSAVar v) {
+        return phiUsers.get(v);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.ir.ssa;
+
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Stmt;
+
+/**
+ * Represents a version of a {@link Var} in SSA form, i.e., the value
+ * defined by a single definition of the variable.
+ */
+public class SSAVar {
+
+    private final Var var;
+
+    private final int index;
+
+    /**
+     * The statement defining this version. For the parameters, this is
+     * the entry node of the CFG, and for the results of phi functions,
+     * this is the statement where the phi function is placed.
+     */
+    private final Stmt definition;
+
+    /**
+     * The phi function defining this version, or null if this version
+     * is defined by a statement.
+     */
+    private final Phi phi;
+
+    SSAVar(Var var, int index, Stmt definition, Phi phi) {
+        this.var = var;
+        this.index = index;
+        this.definition = definition;
+        this.phi = phi;
+    }
+
+    /**
+     * @return the original variable of this version.
+     */
+    public Var getVar() {
+        return var;
+    }
+
+    /**
+     * @return the index of this version, which is unique within an
+     * {@link SSA} and ranges from 0 to the number of versions - 1.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public Stmt getDefinition() {
+        return definition;
+    }
+
+    /**
+     * @return the phi function defining this version, or null if this
+     * version is not defined by a phi function.
+     */
+    public Phi getPhi() {
+        return phi;
+    }
+
+    @Override
+    public String toString() {
+        return var.getName() + "#" + index;
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.graph;
+
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Dominator tree of a graph, computed by the algorithm of Cooper, Harvey
+ * and Kennedy, see "A Simple, Fast Dominance Algorithm".
+ * <p>
+ * Only the nodes reachable from the entry take part in dominance;
+ * for the other nodes, {@link #isReachable(Object)} returns false.
+ *
+ * @param <N> type of nodes
+ */
+public class DominatorTree<N> {
+
+    private final N entry;
+
+    /**
+     * Reachable nodes in reverse postorder.
+     */
+    private final List<N> nodes;
+
+    /**
+     * Maps each reachable node to its index in {@link #nodes}.
+     */
+    private final Map<N, Integer> indexes;
+
+    /**
+     * idoms[i] is the index of the immediate dominator of the i-th node.
+     * The entry is its own immediate dominator.
+     */
+    private final int[] idoms;
+
+    private final List<List<N>> children;
+
+    private final List<Set<N>> frontiers;
+
+    public DominatorTree(Graph<N> graph, N entry) {
+        this.entry = entry;
+        this.nodes = reversePostOrder(graph, entry);
+        int n = nodes.size();
+        this.indexes = Maps.newMap(n);
+        for (int i = 0; i < n; ++i) {
+            indexes.put(nodes.get(i), i);
+        }
+        this.idoms = computeIdoms(graph);
+        this.children = new ArrayList<>(n);
+        this.frontiers = new ArrayList<>(n);
+        for (int i = 0; i < n; ++i) {
+            children.add(new ArrayList<>());
+            frontiers.add(new LinkedHashSet<>());
+        }
+        for (int i = 1; i < n; ++i) {
+            children.get(idoms[i]).add(nodes.get(i));
+        }
+        computeFrontiers(graph);
+    }
+
+    private static <N> List<N> reversePostOrder(Graph<N> graph, N entry) {
+        List<N> order = new ArrayList<>();
+        Set<N> visited = Sets.newSet();
+        Deque<N> stack = new ArrayDeque<>();
+        Deque<Iterator<N>> succs = new ArrayDeque<>();
+        visited.add(entry);
+        stack.push(entry);
+        succs.push(graph.getSuccsOf(entry).iterator());
+        while (!stack.isEmpty()) {
+            Iterator<N> it = succs.peek();
+            if (it.hasNext()) {
+                N succ = it.next();
+                if (visited.add(succ)) {
+                    stack.push(succ);
+                    succs.push(graph.getSuccsOf(succ).iterator());
+                }
+            } else {
+                order.add(stack.pop());
+                succs.pop();
+            }
+        }
+        Collections.reverse(order);
+        return order;
+    }
+
+    private int[] computeIdoms(Graph<N> graph) {
+        int n = nodes.size();
+        int[] idoms = new int[n];
+        Arrays.fill(idoms, -1);
+        idoms[0] = 0;
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int b = 1; b < n; ++b) {
+                int newIdom = -1;
+                for (N pred : graph.getPredsOf(nodes.get(b))) {
+                    Integer p = indexes.get(pred);
+                    if (p == null || idoms[p] == -1) {
+                        // unreachable or not yet processed
+                        continue;
+                    }
+                    newIdom = newIdom == -1 ? p : intersect(idoms, p, newIdom);
+                }
+                if (idoms[b] != newIdom) {
+                    idoms[b] = newIdom;
+                    changed = true;
+                }
+            }
+        }
+        return idoms;
+    }
+
+    private static int intersect(int[] idoms, int b1, int b2) {
+        while (b1 != b2) {
+            while (b1 > b2) {
+                b1 = idoms[b1];
+            }
+            while (b2 > b1) {
+                b2 = idoms[b2];
+            }
+        }
+        return b1;
+    }
+
+    private void computeFrontiers(Graph<N> graph) {
+        for (int b = 0; b < nodes.size(); ++b) {
+            N node = nodes.get(b);
+            Set<N> preds = graph.getPredsOf(node);
+            if (preds.size() < 2) {
+                continue;
+            }
+            for (N pred : preds) {
+                Integer runner = indexes.get(pred);
+                if (runner == null) {
+                    continue;
+                }
+                while (runner != idoms[b]) {
+                    frontiers.get(runner).add(node);
+                    runner = idoms[runner];
+                }
+            }
+        }
+    }
+
+    public N getEntry() {
+        return entry;
+    }
+
+    /**
+     * @return the nodes reachable from the entry, in reverse postorder.
+     */
+    public List<N> getNodes() {
+        return Collections.unmodifiableList(nodes);
+    }
+
+    public boolean isReachable(N node) {
+        return indexes.containsKey(node);
+    }
+
+    /**
+     * @return the immediate dominator of given node, or null if the node
+     * is the entry or is unreachable.
+     */
+    public N getIdom(N node) {
+        Integer i = indexes.get(node);
+        return i == null || i == 0 ? null : nodes.get(idoms[i]);
+    }
+
+    /**
+     * @return the nodes immediately dominated by given node.
+     */
+    public List<N> getChildren(N node) {
+        Integer i = indexes.get(node);
+        return i == null ? List.of() : Collections.unmodifiableList(children.get(i));
+    }
+
+    /**
+     * @return the dominance frontier of given node.
+     */
+    public Set<N> getDominanceFrontier(N node) {
+        Integer i = indexes.get(node);
+        return i == null ? Set.of() : Collections.unmodifiableSet(frontiers.get(i));
+    }
+
+    /**
+     * @return true if node {@code a} dominates node {@code b}.
+     * Every reachable node dominates itself.
+     */
+    public boolean dominates(N a, N b) {
+        Integer ia = indexes.get(a), ib = indexes.get(b);
+        if (ia == null || ib == null) {
+            return false;
+        }
+        // the index of a dominator is always smaller than the
+        // indexes of the nodes it dominates in reverse postorder
+        int i = ib;
+        while (i > ia) {
+            i = idoms[i];
+        }
+        return i == ia;
+    }
+}
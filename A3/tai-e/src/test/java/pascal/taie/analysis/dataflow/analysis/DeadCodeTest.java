@@ -34,6 +34,13 @@ public class DeadCodeTest {
                 "-a", "constprop=edge-refine:false");
     }
 
+    void testFusedDCD(String inputClass) {
+        Tests.test(inputClass, "src/test/resources/dataflow/deadcode/",
+                DeadCodeDetection.ID, "fused:true",
+                "-a", "livevar=strongly:false",
+                "-a", "constprop=edge-refine:false");
+    }
+
     @Test
     public void testControlFlowUnreachable() {
         testDCD("ControlFlowUnreachable");
@@ -58,4 +65,82 @@ public class DeadCodeTest {
     public void testLoops() {
         testDCD("Loops");
     }
+
+    @Test
+    public void testUnreachableSwitchBranchFused() {
+        testFusedDCD("UnreachableSwitchBranch");
+    }
+
+    @Test
+    public void testLoopsFused() {
+        testFusedDCD("Loops");
+    }
+
+    @Test
+    public void testLoopsRecursive() {
+        Tests.test("Loops", "src/test/resources/dataflow/deadcode/",
+                DeadCodeDetection.ID,
+                "-a", "livevar=strongly:false;strategy:recursive",
+                "-a", "constprop=edge-refine:false;strategy:recursive");
+    }
+
+    @Test
+    public void testLoopsBitVector() {
+        Tests.test("Loops", "src/test/resources/dataflow/deadcode/",
+                DeadCodeDetection.ID,
+                "-a", "livevar=strongly:false;bit-vector:true",
+                "-a", "constprop=edge-refine:false");
+    }
+
+    @Test
+    public void testUnreachableIfBranchSparse() {
+        Tests.test("UnreachableIfBranch", "src/test/resources/dataflow/deadcode/",
+                DeadCodeDetection.ID,
+                "-a", "livevar=strongly:false",
+                "-a", "constprop=edge-refine:false;sparse:true");
+    }
+
+    @Test
+    public void testLoopsSparse() {
+        Tests.test("Loops", "src/test/resources/dataflow/deadcode/",
+                DeadCodeDetection.ID,
+                "-a", "livevar=strongly:false",
+                "-a", "constprop=edge-refine:false;sparse:true");
+    }
+
+    /**
+     * The second branch is decided only by the constant which
+     * sparse constant propagation computes at the first join.
+     */
+    @Test
+    public void testPrunedIfBranchSparse() {
+        Tests.test("PrunedIfBranch", "src/test/resources/dataflow/deadcode/",
+                DeadCodeDetection.ID,
+                "-a", "livevar=strongly:false",
+                "-a", "constprop=edge-refine:false;sparse:true");
+    }
+
+    @Test
+    public void testUnreachableIfBranchArrayFacts() {
+        Tests.test("UnreachableIfBranch", "src/test/resources/dataflow/deadcode/",
+                DeadCodeDetection.ID,
+                "-a", "livevar=strongly:false",
+                "-a", "constprop=edge-refine:false;array-facts:true");
+    }
+
+    @Test
+    public void testLoopsBasicBlocks() {
+        Tests.test("Loops", "src/test/resources/dataflow/deadcode/",
+                DeadCodeDetection.ID,
+                "-a", "livevar=strongly:false;basic-blocks:true",
+                "-a", "constprop=edge-refine:false;basic-blocks:true");
+    }
+
+    @Test
+    public void testDeadAssignmentArrayFactsBasicBlocks() {
+        Tests.test("DeadAssignment", "src/test/resources/dataflow/deadcode/",
+                DeadCodeDetection.ID,
+                "-a", "livevar=strongly:false;basic-blocks:true",
+                "-a", "constprop=edge-refine:false;array-facts:true;basic-blocks:true");
+    }
 }
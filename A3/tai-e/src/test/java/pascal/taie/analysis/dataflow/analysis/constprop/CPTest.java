@@ -0,0 +1,98 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import org.junit.Test;
+import pascal.taie.analysis.Tests;
+
+public class CPTest {
+
+    void testCP(String inputClass) {
+        Tests.test(inputClass, "src/test/resources/dataflow/constprop/",
+                ConstantPropagation.ID, "edge-refine:false");
+    }
+
+    void testCP(String inputClass, String options) {
+        Tests.test(inputClass, "src/test/resources/dataflow/constprop/",
+                ConstantPropagation.ID, "edge-refine:false;" + options);
+    }
+
+    void testSparseCP(String inputClass) {
+        Tests.test(inputClass, "src/test/resources/dataflow/constprop/",
+                ConstantPropagation.ID, "edge-refine:false;sparse:true");
+    }
+
+    @Test
+    public void testAssign() {
+        testCP("Assign");
+    }
+
+    @Test
+    public void testSimpleBinary() {
+        testCP("SimpleBinary");
+    }
+
+    @Test
+    public void testSimpleBranch() {
+        testCP("SimpleBranch");
+    }
+
+    @Test
+    public void testAssignSparse() {
+        testSparseCP("Assign");
+    }
+
+    @Test
+    public void testSimpleBinarySparse() {
+        testSparseCP("SimpleBinary");
+    }
+
+    @Test
+    public void testSimpleBranchSparse() {
+        testSparseCP("SimpleBranch");
+    }
+
+    /**
+     * Sparse constant propagation only meets the definitions which reach
+     * via executable edges, thus it is more precise than the dense one here.
+     */
+    @Test
+    public void testPrunedBranchSparse() {
+        testSparseCP("PrunedBranch");
+    }
+
+    @Test
+    public void testSimpleBranchArrayFacts() {
+        testCP("SimpleBranch", "array-facts:true");
+    }
+
+    @Test
+    public void testSimpleBranchBasicBlocks() {
+        testCP("SimpleBranch", "basic-blocks:true");
+    }
+
+    @Test
+    public void testSimpleBinaryArrayFactsBasicBlocks() {
+        testCP("SimpleBinary", "array-facts:true;basic-blocks:true");
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.graph;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class WeakTopologicalOrderTest {
+
+    @Test
+    public void testNestedLoops() {
+        // 1 -> 2 -> 3 -> 4 -> 5 -> 6, 5 -> 3, 4 -> 2 (outer loop)
+        SimpleGraph<Integer> graph = new SimpleGraph<>();
+        graph.addEdge(1, 2);
+        graph.addEdge(2, 3);
+        graph.addEdge(3, 4);
+        graph.addEdge(4, 5);
+        graph.addEdge(5, 6);
+        graph.addEdge(5, 3);
+        graph.addEdge(4, 2);
+        assertEquals("1 (2 (3 4 5)) 6",
+                new WeakTopologicalOrder<>(graph, 1).toString());
+    }
+
+    @Test
+    public void testUnreachableNodes() {
+        SimpleGraph<Integer> graph = new SimpleGraph<>();
+        graph.addEdge(1, 2);
+        graph.addEdge(3, 3);
+        assertEquals("1 2 (3)",
+                new WeakTopologicalOrder<>(graph, 1).toString());
+    }
+
+    @Test
+    public void testLongChain() {
+        // a long path with a back edge, which used to overflow the stack
+        int n = 100_000;
+        SimpleGraph<Integer> graph = new SimpleGraph<>();
+        for (int i = 0; i < n; ++i) {
+            graph.addEdge(i, i + 1);
+        }
+        graph.addEdge(n, 1);
+        WeakTopologicalOrder<Integer> wto = new WeakTopologicalOrder<>(graph, 0);
+        assertEquals(2, wto.getElements().size());
+        assertEquals(n - 1, wto.getElements().get(1).getBody().size());
+        for (int i = 0; i <= n; ++i) {
+            assertEquals(i, (int) wto.getOrder().get(i));
+        }
+    }
+}
@@ -0,0 +1,19 @@
+class PrunedIfBranch {
+
+    int branch() {
+        int x = 10;
+        int y = 1;
+        int z;
+        if (x > y) {
+            z = 100;
+        } else {
+            z = 200; // unreachable branch
+        }
+        if (z > x) {
+            y = 2;
+        } else {
+            y = 3; // unreachable, as z is 100 once the branch above is pruned
+        }
+        return y;
+    }
+}
@@ -66,4 +66,12 @@ public class DataflowResult<Node, Fact> implements NodeResult<Node, Fact> {
     public void setOutFact(Node node, Fact fact) {
         outFacts.put(node, fact);
     }
+
+    /**
+     * Discards the flowing-in facts of all nodes, which saves memory
+     * when only the flowing-out facts are needed after solving.
+     */
+    public void dropInFacts() {
+        inFacts.clear();
+    }
 }
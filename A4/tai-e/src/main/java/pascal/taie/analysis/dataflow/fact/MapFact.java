@@ -24,6 +24,7 @@ package pascal.taie.analysis.dataflow.fact;
 
 import pascal.taie.util.collection.Maps;
 
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.Map;
 import java.util.Objects;
@@ -34,6 +35,11 @@ import java.util.stream.Stream;
 
 /**
  * Represents map-like data-flow facts.
+ * <p>
+ * Copies of a fact share the underlying map in a copy-on-write manner,
+ * so that {@link #copy()} takes constant time, and the map is copied
+ * only when a fact sharing it is actually modified. Updates which
+ * do not change the fact never trigger the copying.
  *
  * @param <K> type of keys
  * @param <V> type of values
@@ -41,9 +47,15 @@ import java.util.stream.Stream;
 public class MapFact<K, V> {
 
     /**
-     * The map holding the mappings of this MapFact.
+     * The map holding the mappings of this MapFact. It may be shared
+     * with other facts, thus it must be modified via {@link #mutableMap()}.
      */
-    protected final Map<K, V> map;
+    protected Map<K, V> map;
+
+    /**
+     * Whether {@link #map} may be shared with other facts.
+     */
+    private boolean shared;
 
     /**
      * Constructs a new MapFact with the same mappings as specified Map.
@@ -54,6 +66,31 @@ public class MapFact<K, V> {
         this.map = Maps.newHybridMap(map);
     }
 
+    /**
+     * Constructs a new MapFact with the same mappings as specified fact,
+     * which shares the map of the fact until either of them is modified.
+     */
+    protected MapFact(MapFact<K, V> fact) {
+        share(fact);
+    }
+
+    private void share(MapFact<K, V> fact) {
+        this.map = fact.map;
+        this.shared = fact.shared = true;
+    }
+
+    /**
+     * @return the map of this fact which is safe to modify, i.e.,
+     * the map is copied first if it is shared with other facts.
+     */
+    protected Map<K, V> mutableMap() {
+        if (shared) {
+            map = Maps.newHybridMap(map);
+            shared = false;
+        }
+        return map;
+    }
+
     /**
      * @return the value to which the specified key is mapped,
      * or null if this map contains no mapping for the key.
@@ -68,7 +105,11 @@ public class MapFact<K, V> {
      * @return if the update changes this fact.
      */
     public boolean update(K key, V value) {
-        return !Objects.equals(map.put(key, value), value);
+        V oldValue = map.get(key);
+        if (oldValue != null && oldValue.equals(value)) {
+            return false;
+        }
+        return !Objects.equals(mutableMap().put(key, value), value);
     }
 
     /**
@@ -78,7 +119,7 @@ public class MapFact<K, V> {
      * or null if there was no mapping for key.
      */
     public V remove(K key) {
-        return map.remove(key);
+        return map.containsKey(key) ? mutableMap().remove(key) : null;
     }
 
     /**
@@ -87,6 +128,11 @@ public class MapFact<K, V> {
      * @return true if this fact changed as a result of the call, otherwise false.
      */
     public boolean copyFrom(MapFact<K, V> fact) {
+        if (map.isEmpty() && getClass() == fact.getClass()) {
+            // nothing to merge with, just share the map of given fact
+            share(fact);
+            return !map.isEmpty();
+        }
         boolean changed = false;
         for (Map.Entry<K, V> entry : fact.map.entrySet()) {
             changed |= update(entry.getKey(), entry.getValue());
@@ -98,21 +144,30 @@ public class MapFact<K, V> {
      * Creates and returns a copy of this fact.
      */
     public MapFact<K, V> copy() {
-        return new MapFact<>(this.map);
+        return new MapFact<>(this);
     }
 
     /**
      * Clears all content in this fact.
      */
     public void clear() {
-        map.clear();
+        if (shared) {
+            map = Maps.newHybridMap();
+            shared = false;
+        } else {
+            map.clear();
+        }
+    }
+
+    public boolean isEmpty() {
+        return map.isEmpty();
     }
 
     /**
-     * @return a {@link Set} view of the keys contained in this fact.
+     * @return an unmodifiable {@link Set} view of the keys contained in this fact.
      */
     public Set<K> keySet() {
-        return map.keySet();
+        return Collections.unmodifiableSet(map.keySet());
     }
 
     /**
@@ -141,7 +196,7 @@ public class MapFact<K, V> {
             return false;
         }
         MapFact<?, ?> that = (MapFact<?, ?>) o;
-        return map.equals(that.map);
+        return map == that.map || map.equals(that.map);
     }
 
     @Override
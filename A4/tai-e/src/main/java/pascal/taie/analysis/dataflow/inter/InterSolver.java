@@ -22,21 +22,38 @@
 
 package pascal.taie.analysis.dataflow.inter;
 
-import pascal.taie.analysis.dataflow.analysis.constprop.CPFact;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.graph.icfg.ICFG;
 import pascal.taie.analysis.graph.icfg.ICFGEdge;
-import pascal.taie.util.collection.SetQueue;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.graph.MergedNode;
+import pascal.taie.util.graph.MergedSCCGraph;
+import pascal.taie.util.graph.SimpleGraph;
+import pascal.taie.util.graph.TopoSorter;
 
-import java.util.ArrayDeque;
-import java.util.Queue;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Solver for inter-procedural data-flow analysis.
  * The workload of inter-procedural analysis is heavy, thus we always
  * adopt work-list algorithm for efficiency.
+ * <p>
+ * The ICFG nodes are numbered before solving, so that the work-list can
+ * check membership in constant time. Besides, the fact transferred along
+ * each edge is cached, and is recomputed only after the out fact of the
+ * source node changes. This relies on the edge transfer functions depending
+ * on nothing but the out facts of the source nodes.
+ * <p>
+ * With SCC scheduling, the nodes are partitioned by the strongly connected
+ * components of the call graph, which are ordered top-down (callers first)
+ * for forward analyses and bottom-up for backward analyses. The solver
+ * iterates inside one component until it is stable, and then moves on
+ * to the first component with pending nodes, so that facts of callers and
+ * callees do not bounce back and forth while neither has settled.
  */
 class InterSolver<Method, Node, Fact> {
 
@@ -44,14 +61,48 @@ class InterSolver<Method, Node, Fact> {
 
     private final ICFG<Method, Node> icfg;
 
+    /**
+     * Whether to schedule the nodes by the strongly connected components
+     * of the call graph.
+     */
+    private final boolean sccSchedule;
+
     private DataflowResult<Node, Fact> result;
 
-    private Queue<Node> workList;
+    /**
+     * ICFG nodes, indexed by their numbers.
+     */
+    private List<Node> nodes;
+
+    /**
+     * partitions[i] is the partition of the i-th node, see {@link WorkList}.
+     */
+    private int[] partitions;
+
+    private int numberOfPartitions;
+
+    /**
+     * succs[i] are the numbers of the successors of the i-th node.
+     */
+    private int[][] succs;
+
+    /**
+     * inEdges.get(i) are the in edges of the i-th node.
+     */
+    private List<InEdge<Node, Fact>[]> inEdges;
+
+    /**
+     * versions[i] is the number of times the out fact of the i-th node
+     * has changed, which tells whether the facts cached on its out edges
+     * are stale.
+     */
+    private int[] versions;
 
     InterSolver(InterDataflowAnalysis<Node, Fact> analysis,
-                ICFG<Method, Node> icfg) {
+                ICFG<Method, Node> icfg, boolean sccSchedule) {
         this.analysis = analysis;
         this.icfg = icfg;
+        this.sccSchedule = sccSchedule;
     }
 
     DataflowResult<Node, Fact> solve() {
@@ -61,6 +112,7 @@ class InterSolver<Method, Node, Fact> {
         return result;
     }
 
+    @SuppressWarnings("unchecked")
     private void initialize() {
         icfg.forEach(node -> {
             // initialize the result with the initial facts
@@ -72,29 +124,207 @@ class InterSolver<Method, Node, Fact> {
             // initialize the result with the boundary facts
             result.setOutFact(entry, analysis.newBoundaryFact(entry));
         });
+        // number the nodes and index their edges
+        nodes = new ArrayList<>(icfg.getNodes());
+        int n = nodes.size();
+        partitions = new int[n];
+        if (sccSchedule) {
+            // number the nodes of each component consecutively
+            Map<Method, Integer> components = computeComponents();
+            nodes.sort(Comparator.comparingInt(node ->
+                    components.get(icfg.getContainingMethodOf(node))));
+            for (int i = 0; i < n; ++i) {
+                partitions[i] = components.get(icfg.getContainingMethodOf(nodes.get(i)));
+            }
+            numberOfPartitions = n > 0 ? partitions[n - 1] + 1 : 0;
+        } else {
+            numberOfPartitions = 1;
+        }
+        Map<Node, Integer> ids = Maps.newMap(n);
+        for (int i = 0; i < n; ++i) {
+            ids.put(nodes.get(i), i);
+        }
+        succs = new int[n][];
+        inEdges = new ArrayList<>(n);
+        versions = new int[n];
+        for (int i = 0; i < n; ++i) {
+            Node node = nodes.get(i);
+            succs[i] = icfg.getSuccsOf(node)
+                    .stream()
+                    .mapToInt(ids::get)
+                    .toArray();
+            inEdges.add(icfg.getInEdgesOf(node)
+                    .stream()
+                    .map(edge -> new InEdge<Node, Fact>(edge, ids.get(edge.getSource())))
+                    .toArray(InEdge[]::new));
+        }
+    }
+
+    /**
+     * @return the indexes of the strongly connected components of the call
+     * graph in scheduling order, for all methods in the ICFG.
+     */
+    private Map<Method, Integer> computeComponents() {
+        SimpleGraph<Method> callGraph = new SimpleGraph<>();
+        for (Node node : icfg) {
+            Method caller = icfg.getContainingMethodOf(node);
+            callGraph.addNode(caller);
+            if (icfg.isCallSite(node)) {
+                icfg.getCalleesOf(node).forEach(callee ->
+                        callGraph.addEdge(caller, callee));
+            }
+        }
+        List<MergedNode<Method>> sccs = new TopoSorter<>(
+                new MergedSCCGraph<>(callGraph), !analysis.isForward()).get();
+        Map<Method, Integer> components = Maps.newMap(callGraph.getNumberOfNodes());
+        for (int i = 0; i < sccs.size(); ++i) {
+            for (Method method : sccs.get(i).getNodes()) {
+                components.put(method, i);
+            }
+        }
+        return components;
     }
 
     private void doSolve() {
         // initialize the work-list
-        workList = new ArrayDeque<>();
-        workList.addAll(icfg.getNodes());
+        WorkList workList = new WorkList(partitions, numberOfPartitions);
+        for (int i = 0; i < nodes.size(); ++i) {
+            workList.add(i);
+        }
         while (!workList.isEmpty()) {
-            Node node = workList.poll();
-            CPFact inFact = new CPFact();
-            CPFact outFact = (CPFact) result.getOutFact(node);
+            int i = workList.poll();
+            Node node = nodes.get(i);
+            Fact inFact = analysis.newInitialFact();
+            Fact outFact = result.getOutFact(node);
             // transfer the in-fact to out-fact
-            for(ICFGEdge<Node> edge : icfg.getInEdgesOf(node)){
-                analysis.meetInto(analysis.transferEdge(edge, result.getOutFact(edge.getSource())), (Fact) inFact);
+            for (InEdge<Node, Fact> inEdge : inEdges.get(i)) {
+                analysis.meetInto(getEdgeFact(inEdge), inFact);
             }
-            if(analysis.transferNode(node, (Fact) inFact, (Fact) outFact)){
-                icfg.getSuccsOf(node).forEach(suc -> {
-                    if(!workList.contains(suc)){
-                        workList.add(suc);
-                    }
-                });
+            if (analysis.transferNode(node, inFact, outFact)) {
+                ++versions[i];
+                for (int succ : succs[i]) {
+                    workList.add(succ);
+                }
             }
-            result.setInFact(node, (Fact) inFact);
-            result.setOutFact(node, (Fact) outFact);
+            result.setInFact(node, inFact);
+        }
+    }
+
+    /**
+     * @return the fact transferred along given edge, which is recomputed
+     * only if the out fact of the source node changed since last time.
+     */
+    private Fact getEdgeFact(InEdge<Node, Fact> inEdge) {
+        int version = versions[inEdge.source];
+        if (inEdge.fact == null || inEdge.version != version) {
+            inEdge.fact = analysis.transferEdge(inEdge.edge,
+                    result.getOutFact(nodes.get(inEdge.source)));
+            inEdge.version = version;
+        }
+        return inEdge.fact;
+    }
+
+    /**
+     * An ICFG edge together with the fact last transferred along it.
+     */
+    private static final class InEdge<Node, Fact> {
+
+        private final ICFGEdge<Node> edge;
+
+        /**
+         * Number of the source node.
+         */
+        private final int source;
+
+        private Fact fact;
+
+        /**
+         * Version of the out fact of the source node which {@link #fact}
+         * is transferred from.
+         */
+        private int version;
+
+        private InEdge(ICFGEdge<Node> edge, int source) {
+            this.edge = edge;
+            this.source = source;
+        }
+    }
+
+    /**
+     * Work-list of node numbers, which contains each node at most once.
+     * The nodes are divided into partitions of consecutive numbers, each of
+     * which has a FIFO queue of its own. The work-list keeps polling nodes
+     * of the same partition until it is empty, and then moves on to the
+     * first partition with pending nodes.
+     */
+    private static final class WorkList {
+
+        private final int[] partitions;
+
+        /**
+         * queue[starts[p] .. starts[p + 1]) is the ring buffer of partition p.
+         */
+        private final int[] queue;
+
+        private final int[] starts;
+
+        private final int[] heads;
+
+        private final int[] sizes;
+
+        private final BitSet members;
+
+        /**
+         * Partitions with pending nodes.
+         */
+        private final BitSet pending;
+
+        private int current;
+
+        private WorkList(int[] partitions, int numberOfPartitions) {
+            this.partitions = partitions;
+            queue = new int[partitions.length];
+            starts = new int[numberOfPartitions + 1];
+            for (int partition : partitions) {
+                ++starts[partition + 1];
+            }
+            for (int p = 0; p < numberOfPartitions; ++p) {
+                starts[p + 1] += starts[p];
+            }
+            heads = new int[numberOfPartitions];
+            sizes = new int[numberOfPartitions];
+            members = new BitSet(partitions.length);
+            pending = new BitSet(numberOfPartitions);
+        }
+
+        private void add(int node) {
+            if (!members.get(node)) {
+                members.set(node);
+                int p = partitions[node];
+                int capacity = starts[p + 1] - starts[p];
+                queue[starts[p] + (heads[p] + sizes[p]) % capacity] = node;
+                if (sizes[p]++ == 0) {
+                    pending.set(p);
+                }
+            }
+        }
+
+        private int poll() {
+            if (sizes[current] == 0) {
+                current = pending.nextSetBit(0);
+            }
+            int p = current;
+            int node = queue[starts[p] + heads[p]];
+            heads[p] = (heads[p] + 1) % (starts[p + 1] - starts[p]);
+            if (--sizes[p] == 0) {
+                pending.clear(p);
+            }
+            members.clear(node);
+            return node;
+        }
+
+        private boolean isEmpty() {
+            return pending.isEmpty();
         }
     }
 }
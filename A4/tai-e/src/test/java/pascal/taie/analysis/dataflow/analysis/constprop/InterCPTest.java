@@ -57,4 +57,11 @@ public class InterCPTest {
     public void testMultiIntArgs() {
         test("MultiIntArgs");
     }
+
+    @Test
+    public void testFibonacciSCCSchedule() {
+        Tests.test("Fibonacci", CLASS_PATH, InterConstantPropagation.ID,
+                "edge-refine:false;alias-aware:false;scc-schedule:true",
+                "-a", "cg=algorithm:cha");
+    }
 }
@@ -26,15 +26,20 @@ import pascal.taie.analysis.ProgramAnalysis;
 import pascal.taie.analysis.pta.PointerAnalysisResult;
 import pascal.taie.analysis.pta.core.cs.selector.CISelector;
 import pascal.taie.analysis.pta.core.cs.selector.ContextSelector;
+import pascal.taie.analysis.pta.core.cs.selector.SelectiveSelector;
 import pascal.taie.analysis.pta.core.heap.AllocationSiteBasedModel;
 import pascal.taie.analysis.pta.plugin.ResultProcessor;
+import pascal.taie.analysis.pta.toolkit.scaler.Scaler;
 import pascal.taie.config.AnalysisConfig;
 import pascal.taie.config.AnalysisOptions;
 import pascal.taie.config.ConfigException;
+import pascal.taie.language.classes.JMethod;
 import pascal.taie.util.Strings;
+import pascal.taie.util.collection.Maps;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.util.Map;
 
 /**
  * Context-sensitive pointer analysis.
@@ -50,15 +55,42 @@ public class CSPTA extends ProgramAnalysis {
     @Override
     public PointerAnalysisResult analyze() {
         AnalysisOptions options = getOptions();
+        String cs = options.getString("cs");
+        ContextSelector contextSelector = cs.equals("scaler")
+                ? getSelectiveSelector(options)
+                : getContextSelector(cs);
         Solver solver = new Solver(options,
-                new AllocationSiteBasedModel(options),
-                getContextSelector(options.getString("cs")));
+                new AllocationSiteBasedModel(options), contextSelector);
         solver.solve();
         PointerAnalysisResult result = solver.getResult();
         ResultProcessor.process(options, result);
         return result;
     }
 
+    /**
+     * Runs a context-insensitive pre-analysis, and lets Scaler choose
+     * a context sensitivity variant for each method from the pre-analysis
+     * result, so that the total points-to size of the main analysis is
+     * estimated to stay within the budget given by option scaler-tst.
+     *
+     * @return the selector that applies the chosen variants.
+     */
+    private static ContextSelector getSelectiveSelector(AnalysisOptions options) {
+        Solver preSolver = new Solver(options,
+                new AllocationSiteBasedModel(options), new CISelector());
+        preSolver.solve();
+        PointerAnalysisResult preResult = preSolver.getResult();
+        Scaler scaler = options.get("scaler-tst") != null
+                ? new Scaler(preResult, options.getInt("scaler-tst"))
+                : new Scaler(preResult);
+        Map<String, ContextSelector> variantSelectors = Maps.newMap();
+        Map<JMethod, ContextSelector> selectors = Maps.newMap();
+        scaler.selectContext().forEach((method, variant) ->
+                selectors.put(method, variantSelectors.computeIfAbsent(
+                        variant, CSPTA::getContextSelector)));
+        return new SelectiveSelector(selectors, new CISelector());
+    }
+
     private static ContextSelector getContextSelector(String cs) {
         if (cs.equals("ci")) {
             return new CISelector();
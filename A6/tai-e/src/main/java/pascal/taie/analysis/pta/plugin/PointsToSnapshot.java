@@ -0,0 +1,373 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.plugin;
+
+import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.analysis.pta.core.cs.element.ArrayIndex;
+import pascal.taie.analysis.pta.core.cs.element.CSVar;
+import pascal.taie.analysis.pta.core.cs.element.InstanceField;
+import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.analysis.pta.core.cs.element.StaticField;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.util.AnalysisException;
+import pascal.taie.util.collection.Maps;
+
+import javax.annotation.Nullable;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Compact binary snapshot of points-to sets in pointer analysis result.
+ * <p>
+ * Every distinct string (pointer or object) is stored only once
+ * in a string table and referred to by its id. The snapshot is read via
+ * a memory-mapped file, and the strings are decoded lazily, so that
+ * querying points-to set of a pointer does not need to load the whole file.
+ * <p>
+ * Layout of the file (all integers are 4-byte big-endian):
+ * <pre>
+ * MAGIC VERSION
+ * #strings offset[0..#strings] UTF-8 bytes of all strings
+ * (#records (key id, start, size)*) for each section, sorted by key
+ * #object ids (object id)*
+ * </pre>
+ * The objects in each points-to set are sorted by their strings.
+ * As all positions are 4-byte integers, a snapshot cannot exceed
+ * {@link #MAX_SIZE} bytes.
+ */
+public class PointsToSnapshot {
+
+    private static final int MAGIC = 0x54414950;
+
+    private static final int VERSION = 1;
+
+    /**
+     * Sections of the snapshot. Section VARS holds the context-insensitive
+     * points-to sets of variables, and the others hold the points-to sets
+     * of context-sensitive pointers.
+     */
+    private static final int VARS = 0, CS_VARS = 1, STATIC_FIELDS = 2,
+            INSTANCE_FIELDS = 3, ARRAY_INDEXES = 4, SECTIONS = 5;
+
+    private static final int RECORD_SIZE = 3 * Integer.BYTES;
+
+    /**
+     * Maximum size of a snapshot file in bytes.
+     */
+    private static final long MAX_SIZE = Integer.MAX_VALUE;
+
+    private final ByteBuffer buffer;
+
+    private final int numStrings;
+
+    /**
+     * Position of string offsets.
+     */
+    private final int offsetsPos;
+
+    /**
+     * Position of string bytes.
+     */
+    private final int stringsPos;
+
+    private final int[] sectionPos = new int[SECTIONS];
+
+    private final int[] sectionSize = new int[SECTIONS];
+
+    /**
+     * Position of object ids.
+     */
+    private final int objIdsPos;
+
+    private PointsToSnapshot(ByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new AnalysisException("Not a points-to snapshot of version " + VERSION);
+        }
+        numStrings = buffer.getInt(8);
+        offsetsPos = 12;
+        stringsPos = offsetsPos + (numStrings + 1) * Integer.BYTES;
+        int pos = stringsPos + buffer.getInt(offsetsPos + numStrings * Integer.BYTES);
+        for (int i = 0; i < SECTIONS; ++i) {
+            sectionSize[i] = buffer.getInt(pos);
+            sectionPos[i] = pos + Integer.BYTES;
+            pos = sectionPos[i] + sectionSize[i] * RECORD_SIZE;
+        }
+        objIdsPos = pos + Integer.BYTES;
+    }
+
+    /**
+     * Opens the snapshot in given file.
+     */
+    public static PointsToSnapshot open(String input) {
+        try (FileChannel channel = FileChannel.open(Path.of(input),
+                StandardOpenOption.READ)) {
+            if (channel.size() > MAX_SIZE) {
+                throw new AnalysisException("Points-to snapshot " + input +
+                        " has " + channel.size() + " bytes, exceeding the limit of "
+                        + MAX_SIZE + " bytes");
+            }
+            return new PointsToSnapshot(channel.map(
+                    FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException e) {
+            throw new AnalysisException("Failed to open points-to snapshot " + input, e);
+        }
+    }
+
+    /**
+     * @return the (context-insensitive) points-to set of given variable,
+     * i.e., the strings of the objects pointed by the variable,
+     * or null if the variable is absent in the snapshot.
+     */
+    public @Nullable List<String> getPointsToSet(Var var) {
+        return getPointsToSet(VARS, toString(var));
+    }
+
+    /**
+     * @return the points-to set of given context-sensitive pointer,
+     * or null if the pointer is absent in the snapshot.
+     */
+    public @Nullable List<String> getPointsToSet(Pointer pointer) {
+        int section;
+        if (pointer instanceof CSVar) {
+            section = CS_VARS;
+        } else if (pointer instanceof StaticField) {
+            section = STATIC_FIELDS;
+        } else if (pointer instanceof InstanceField) {
+            section = INSTANCE_FIELDS;
+        } else if (pointer instanceof ArrayIndex) {
+            section = ARRAY_INDEXES;
+        } else {
+            throw new AnalysisException("Unexpected pointer: " + pointer);
+        }
+        return getPointsToSet(section, pointer.toString());
+    }
+
+    /**
+     * @return the number of context-sensitive pointers in this snapshot.
+     */
+    public int getNumberOfPointers() {
+        int n = 0;
+        for (int section = CS_VARS; section < SECTIONS; ++section) {
+            n += sectionSize[section];
+        }
+        return n;
+    }
+
+    /**
+     * Applies given action to every context-sensitive pointer (represented
+     * by its string) and its points-to set in this snapshot.
+     */
+    public void forEachPointer(BiConsumer<String, List<String>> action) {
+        for (int section = CS_VARS; section < SECTIONS; ++section) {
+            for (int i = 0; i < sectionSize[section]; ++i) {
+                int record = sectionPos[section] + i * RECORD_SIZE;
+                action.accept(getString(buffer.getInt(record)), readObjects(record));
+            }
+        }
+    }
+
+    private @Nullable List<String> getPointsToSet(int section, String key) {
+        // binary search on the records, which are sorted by keys
+        int low = 0, high = sectionSize[section] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int record = sectionPos[section] + mid * RECORD_SIZE;
+            int cmp = getString(buffer.getInt(record)).compareTo(key);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return readObjects(record);
+            }
+        }
+        return null;
+    }
+
+    private List<String> readObjects(int record) {
+        int start = buffer.getInt(record + Integer.BYTES);
+        int size = buffer.getInt(record + 2 * Integer.BYTES);
+        List<String> objects = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i) {
+            objects.add(getString(buffer.getInt(objIdsPos + (start + i) * Integer.BYTES)));
+        }
+        return objects;
+    }
+
+    private String getString(int id) {
+        int start = buffer.getInt(offsetsPos + id * Integer.BYTES);
+        int end = buffer.getInt(offsetsPos + (id + 1) * Integer.BYTES);
+        byte[] bytes = new byte[end - start];
+        buffer.get(stringsPos + start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes the points-to sets in given result to given file.
+     */
+    public static void write(PointerAnalysisResult result, String output) {
+        Writer writer = new Writer();
+        writer.addSection(result.getVars(), PointsToSnapshot::toString,
+                v -> result.getPointsToSet(v).stream().map(Object::toString));
+        writer.addPointers(result.getCSVars());
+        writer.addPointers(result.getStaticFields());
+        writer.addPointers(result.getInstanceFields());
+        writer.addPointers(result.getArrayIndexes());
+        long size = writer.getSize();
+        if (size > MAX_SIZE) {
+            throw new AnalysisException("Points-to snapshot " + output +
+                    " would have " + size + " bytes, exceeding the limit of "
+                    + MAX_SIZE + " bytes");
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(Path.of(output))))) {
+            writer.write(out);
+        } catch (IOException e) {
+            throw new AnalysisException("Failed to write points-to snapshot " + output, e);
+        }
+    }
+
+    private static String toString(Var var) {
+        return var.getMethod() + "/" + var.getName();
+    }
+
+    private static class Writer {
+
+        private final Map<String, Integer> stringIds = Maps.newMap();
+
+        private final List<byte[]> strings = new ArrayList<>();
+
+        /**
+         * Records of all sections, each record is (key id, start, size).
+         */
+        private final List<int[]> sections = new ArrayList<>();
+
+        private int[] objIds = new int[1024];
+
+        private int numObjIds = 0;
+
+        private void addPointers(Collection<? extends Pointer> pointers) {
+            addSection(pointers, Pointer::toString,
+                    p -> p.getPointsToSet().objects().map(Object::toString));
+        }
+
+        private <E> void addSection(Collection<E> elems,
+                                    Function<E, String> toKey,
+                                    Function<E, Stream<String>> toObjs) {
+            record Entry<E>(String key, E elem) {
+            }
+            List<Entry<E>> entries = elems.stream()
+                    .map(e -> new Entry<>(toKey.apply(e), e))
+                    .sorted(Comparator.comparing(Entry::key))
+                    .toList();
+            int[] records = new int[entries.size() * 3];
+            int i = 0;
+            for (Entry<E> entry : entries) {
+                records[i++] = getId(entry.key());
+                records[i++] = numObjIds;
+                int start = numObjIds;
+                toObjs.apply(entry.elem()).sorted().forEach(o -> addObjId(getId(o)));
+                records[i++] = numObjIds - start;
+            }
+            sections.add(records);
+        }
+
+        private int getId(String s) {
+            Integer id = stringIds.get(s);
+            if (id == null) {
+                id = strings.size();
+                stringIds.put(s, id);
+                strings.add(s.getBytes(StandardCharsets.UTF_8));
+            }
+            return id;
+        }
+
+        private void addObjId(int id) {
+            if (numObjIds == objIds.length) {
+                if ((long) numObjIds * Integer.BYTES > MAX_SIZE) {
+                    throw new AnalysisException("Too many objects in points-to sets for"
+                            + " a snapshot of at most " + MAX_SIZE + " bytes");
+                }
+                objIds = Arrays.copyOf(objIds, objIds.length * 2);
+            }
+            objIds[numObjIds++] = id;
+        }
+
+        /**
+         * @return the size of the snapshot in bytes.
+         */
+        private long getSize() {
+            long size = 3L * Integer.BYTES // MAGIC, VERSION, #strings
+                    + (strings.size() + 1L) * Integer.BYTES;
+            for (byte[] s : strings) {
+                size += s.length;
+            }
+            for (int[] records : sections) {
+                size += Integer.BYTES + (long) records.length * Integer.BYTES;
+            }
+            return size + Integer.BYTES + (long) numObjIds * Integer.BYTES;
+        }
+
+        private void write(DataOutputStream out) throws IOException {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(strings.size());
+            int offset = 0;
+            out.writeInt(offset);
+            for (byte[] s : strings) {
+                offset += s.length;
+                out.writeInt(offset);
+            }
+            for (byte[] s : strings) {
+                out.write(s);
+            }
+            for (int[] records : sections) {
+                out.writeInt(records.length / 3);
+                for (int r : records) {
+                    out.writeInt(r);
+                }
+            }
+            out.writeInt(numObjIds);
+            for (int i = 0; i < numObjIds; ++i) {
+                out.writeInt(objIds[i]);
+            }
+        }
+    }
+}
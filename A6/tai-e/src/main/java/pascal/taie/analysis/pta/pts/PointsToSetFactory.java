@@ -23,6 +23,8 @@
 package pascal.taie.analysis.pta.pts;
 
 import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.config.ConfigException;
+import pascal.taie.util.Indexer;
 import pascal.taie.util.collection.Sets;
 
 import java.util.Set;
@@ -35,8 +37,30 @@ public class PointsToSetFactory {
 
     private static final Supplier<Set<CSObj>> setFactory = Sets::newHybridSet;
 
+    private static Supplier<PointsToSet> ptsFactory = PointsToSetFactory::makeHybrid;
+
+    /**
+     * Selects the implementation of the points-to sets made by this factory.
+     * This method should be called before the pointer analysis creates
+     * any points-to sets.
+     *
+     * @param impl       "hybrid" (default) for hash-based sets, or
+     *                   "bit-vector" for sets of sparse bit vectors.
+     * @param objIndexer the indexer of context-sensitive objects, which is
+     *                   used by bit-vector points-to sets.
+     */
+    public static void setImplementation(String impl, Indexer<CSObj> objIndexer) {
+        if (impl == null || impl.equals("hybrid")) {
+            ptsFactory = PointsToSetFactory::makeHybrid;
+        } else if (impl.equals("bit-vector")) {
+            ptsFactory = () -> new BitVectorPointsToSet(objIndexer);
+        } else {
+            throw new ConfigException("Unexpected points-to set implementation: " + impl);
+        }
+    }
+
     public static PointsToSet make() {
-        return new DelegatePointsToSet(setFactory.get());
+        return ptsFactory.get();
     }
 
     /**
@@ -47,4 +71,8 @@ public class PointsToSetFactory {
         set.addObject(obj);
         return set;
     }
+
+    private static PointsToSet makeHybrid() {
+        return new DelegatePointsToSet(setFactory.get());
+    }
 }
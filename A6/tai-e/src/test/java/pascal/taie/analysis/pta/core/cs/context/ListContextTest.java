@@ -0,0 +1,93 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.cs.context;
+
+import org.junit.Test;
+import pascal.taie.World;
+import pascal.taie.util.Indexable;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class ListContextTest {
+
+    private static int indexOf(Context context) {
+        return ((Indexable) context).getIndex();
+    }
+
+    @Test
+    public void testInterning() {
+        Context ab = ListContext.make("a", "b");
+        assertSame(ab, ListContext.make("a", "b"));
+        assertNotSame(ab, ListContext.make("b", "a"));
+        assertNotSame(ab, ListContext.make("a"));
+        assertSame(ListContext.make(), ListContext.make(new Object[0]));
+        assertEquals(2, ab.getLength());
+        assertEquals("a", ab.getElementAt(0));
+        assertEquals("b", ab.getElementAt(1));
+        assertEquals(List.of("a", "b").hashCode(), ab.hashCode());
+        assertEquals(List.of("a", "b").toString(), ab.toString());
+    }
+
+    @Test
+    public void testIndexes() {
+        assertEquals(0, indexOf(ListContext.make()));
+        List<Context> contexts = IntStream.range(0, 100)
+                .mapToObj(i -> ListContext.make(i % 10, i / 10))
+                .toList();
+        Set<Integer> indexes = contexts.stream()
+                .map(ListContextTest::indexOf)
+                .collect(Collectors.toSet());
+        assertEquals(100, indexes.size());
+        for (Context context : contexts) {
+            assertSame(context, ListContext.make(
+                    context.getElementAt(0), context.getElementAt(1)));
+        }
+    }
+
+    @Test
+    public void testReset() {
+        Context a = ListContext.make("a");
+        Context ab = ListContext.make("a", "b");
+        World.reset();
+        // the trie is rebuilt, so contexts made before the reset are not reused
+        Context a2 = ListContext.make("a");
+        Context ab2 = ListContext.make("a", "b");
+        assertNotSame(a, a2);
+        assertNotSame(ab, ab2);
+        assertNotEquals(ab, ab2);
+        assertSame(ab2, ListContext.make("a", "b"));
+        assertSame(ListContext.make(), ListContext.make());
+        // indexes restart after the reset and stay distinct
+        assertEquals(1, indexOf(a2));
+        assertEquals(2, indexOf(ab2));
+        assertNotEquals(indexOf(a2), indexOf(ListContext.make("b")));
+    }
+}
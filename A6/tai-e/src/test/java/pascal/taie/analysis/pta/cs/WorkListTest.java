@@ -0,0 +1,143 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.cs;
+
+import org.junit.Before;
+import org.junit.Test;
+import pascal.taie.analysis.pta.core.cs.context.ListContext;
+import pascal.taie.analysis.pta.core.cs.element.CSManager;
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.core.cs.element.IndexedCSManager;
+import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.analysis.pta.core.heap.MockObj;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.analysis.pta.pts.PointsToSetFactory;
+import pascal.taie.language.type.NullType;
+import pascal.taie.language.type.Type;
+
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class WorkListTest {
+
+    private static class Node implements Pointer {
+
+        private PointsToSet pointsToSet;
+
+        @Override
+        public PointsToSet getPointsToSet() {
+            return pointsToSet;
+        }
+
+        @Override
+        public void setPointsToSet(PointsToSet pointsToSet) {
+            this.pointsToSet = pointsToSet;
+        }
+
+        @Override
+        public Type getType() {
+            return null;
+        }
+    }
+
+    private CSManager csManager;
+
+    @Before
+    public void setUp() {
+        csManager = new IndexedCSManager();
+        PointsToSetFactory.setImplementation("hybrid", csManager.getObjectIndexer());
+    }
+
+    private CSObj obj(String name) {
+        return csManager.getCSObj(ListContext.make(),
+                new MockObj("test", name, NullType.NULL));
+    }
+
+    private PointsToSet pts(String... objs) {
+        PointsToSet pts = PointsToSetFactory.make();
+        for (String obj : objs) {
+            pts.addObject(obj(obj));
+        }
+        return pts;
+    }
+
+    private Set<CSObj> objs(String... objs) {
+        return pts(objs).getObjects();
+    }
+
+    @Test
+    public void testMergeDeltas() {
+        WorkList workList = new WorkList(true);
+        Node p = new Node();
+        Node q = new Node();
+        PointsToSet first = pts("o1");
+        workList.addEntry(p, first);
+        workList.addEntry(q, pts("o2"));
+        workList.addEntry(p, pts("o3"));
+        workList.addEntry(p, pts("o1", "o4"));
+        // each pointer is queued once, in the order of its first entry
+        WorkList.Entry entry = workList.pollEntry();
+        assertSame(p, entry.pointer());
+        assertEquals(objs("o1", "o3", "o4"), entry.pointsToSet().getObjects());
+        // the first added points-to set is copied before merging
+        assertEquals(objs("o1"), first.getObjects());
+        entry = workList.pollEntry();
+        assertSame(q, entry.pointer());
+        assertEquals(objs("o2"), entry.pointsToSet().getObjects());
+        assertTrue(workList.isEmpty());
+        assertNull(workList.pollEntry());
+    }
+
+    @Test
+    public void testMergeDeltasAfterPoll() {
+        WorkList workList = new WorkList(true);
+        Node p = new Node();
+        Node q = new Node();
+        PointsToSet single = pts("o1");
+        workList.addEntry(p, single);
+        workList.addEntry(q, pts("o2"));
+        // a polled pointer is queued again behind the pending ones
+        assertSame(single, workList.pollEntry().pointsToSet());
+        workList.addEntry(p, pts("o5"));
+        assertSame(q, workList.pollEntry().pointer());
+        WorkList.Entry entry = workList.pollEntry();
+        assertSame(p, entry.pointer());
+        assertEquals(objs("o5"), entry.pointsToSet().getObjects());
+        assertTrue(workList.isEmpty());
+    }
+
+    @Test
+    public void testNoMerge() {
+        WorkList workList = new WorkList(false);
+        Node p = new Node();
+        workList.addEntry(p, pts("o1"));
+        workList.addEntry(p, pts("o2"));
+        assertEquals(objs("o1"), workList.pollEntry().pointsToSet().getObjects());
+        assertEquals(objs("o2"), workList.pollEntry().pointsToSet().getObjects());
+        assertTrue(workList.isEmpty());
+    }
+}
@@ -22,29 +22,63 @@
 
 package pascal.taie.analysis.pta.core.cs.context;
 
+import pascal.taie.World;
 import pascal.taie.util.AnalysisException;
+import pascal.taie.util.Indexable;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * List-based contexts. Each context is represented by a list of context elements.
+ * <p>
+ * Contexts are hash-consed in a trie: the context [e1, ..., en] is the child
+ * of [e1, ..., en-1] labeled by en, and {@link #make(Object[])} walks the
+ * trie instead of allocating a new context. Thus, each distinct context
+ * exists only once, so that contexts can be compared by identity,
+ * and each context caches its hash code and has a unique index.
+ * The trie is cleared when {@link World} is reset.
  *
  * @param <T> type of context elements
  */
-public class ListContext<T> implements Context {
+public class ListContext<T> implements Context, Indexable {
 
     /**
-     * The empty context.
+     * The empty context, i.e., the root of the context trie.
      */
-    private static final ListContext<?> EMPTY_CONTEXT = new ListContext<>(List.of());
+    private static final ListContext<?> EMPTY_CONTEXT = new ListContext<>(List.of(), 0);
+
+    /**
+     * Counter for indexes of contexts. Index 0 is for the empty context.
+     */
+    private static final AtomicInteger counter = new AtomicInteger(1);
+
+    static {
+        World.registerResetCallback(ListContext::reset);
+    }
 
     /**
      * List of elements in the context.
      */
     private final List<T> elements;
 
-    private ListContext(List<T> elements) {
+    private final int hashCode;
+
+    private final int index;
+
+    /**
+     * Map from context elements to the child contexts in the trie.
+     */
+    private final Map<T, ListContext<T>> children = new ConcurrentHashMap<>(4);
+
+    private ListContext(List<T> elements, int index) {
         this.elements = elements;
+        this.hashCode = elements.hashCode();
+        this.index = index;
     }
 
     /**
@@ -58,9 +92,36 @@ public class ListContext<T> implements Context {
      * @return a context that consists of given context elements.
      */
     @SafeVarargs
+    @SuppressWarnings("unchecked")
     public static <T> Context make(T... elements) {
-        return elements.length == 0 ?
-                EMPTY_CONTEXT : new ListContext<>(List.of(elements));
+        ListContext<T> context = (ListContext<T>) EMPTY_CONTEXT;
+        for (T element : elements) {
+            context = context.getChild(element);
+        }
+        return context;
+    }
+
+    /**
+     * @return the context that consists of the elements of this context
+     * followed by given element.
+     */
+    private ListContext<T> getChild(T element) {
+        ListContext<T> child = children.get(element);
+        if (child == null) {
+            child = children.computeIfAbsent(element, e -> {
+                List<T> childElems = new ArrayList<>(elements.size() + 1);
+                childElems.addAll(elements);
+                childElems.add(e);
+                return new ListContext<>(Collections.unmodifiableList(childElems),
+                        counter.getAndIncrement());
+            });
+        }
+        return child;
+    }
+
+    private static void reset() {
+        EMPTY_CONTEXT.children.clear();
+        counter.set(1);
     }
 
     @Override
@@ -77,21 +138,30 @@ public class ListContext<T> implements Context {
         return elements.get(i);
     }
 
+    /**
+     * @return the index of this context. The indexes of all contexts
+     * made since last reset of {@link World} are distinct. Every node of
+     * the trie takes an index, including the prefixes of the contexts
+     * actually used, so clients that need dense numbers (e.g.,
+     * {@link pascal.taie.analysis.pta.core.cs.element.ArrayBasedCSManager})
+     * should number the contexts themselves.
+     */
+    @Override
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Contexts are hash-consed, so equal contexts are identical.
+     */
     @Override
     public boolean equals(Object o) {
-        if (this == o) {
-            return true;
-        }
-        if (o == null || getClass() != o.getClass()) {
-            return false;
-        }
-        ListContext<?> that = (ListContext<?>) o;
-        return elements.equals(that.elements);
+        return this == o;
     }
 
     @Override
     public int hashCode() {
-        return elements.hashCode();
+        return hashCode;
     }
 
     @Override
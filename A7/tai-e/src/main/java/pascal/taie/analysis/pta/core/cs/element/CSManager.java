@@ -28,6 +28,7 @@ import pascal.taie.ir.exp.Var;
 import pascal.taie.ir.stmt.Invoke;
 import pascal.taie.language.classes.JField;
 import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.Indexer;
 
 import java.util.Collection;
 
@@ -72,6 +73,13 @@ public interface CSManager {
      */
     ArrayIndex getArrayIndex(CSObj array);
 
+    /**
+     * @return the indexer of context-sensitive objects created by
+     * this manager. The indexes are dense and only valid within
+     * a single pointer analysis run.
+     */
+    Indexer<CSObj> getObjectIndexer();
+
     /**
      * @return all variables (without contexts).
      */
@@ -28,6 +28,7 @@ import pascal.taie.analysis.pta.PointerAnalysisResult;
 import pascal.taie.analysis.pta.core.cs.element.Pointer;
 import pascal.taie.analysis.pta.pts.PointsToSet;
 import pascal.taie.config.AnalysisOptions;
+import pascal.taie.config.ConfigException;
 import pascal.taie.util.AnalysisException;
 import pascal.taie.util.collection.Streams;
 
@@ -69,6 +70,13 @@ public class ResultProcessor {
 
     private static final DecimalFormat formatter = new DecimalFormat("#,####");
 
+    /**
+     * Key of the number of PFG nodes collapsed by cycle elimination,
+     * which is stored in the pointer analysis result by the solver
+     * when option cycle-elim is enabled.
+     */
+    public static final String COLLAPSED_NODES = "collapsed-nodes";
+
     public static void process(AnalysisOptions options,
                                PointerAnalysisResult result) {
         printStatistics(result);
@@ -77,9 +85,33 @@ public class ResultProcessor {
             return;
         }
         String file = options.getString("file");
+        boolean binary = isBinaryFormat(options.getString("format"), file);
         switch (action) {
-            case "dump" -> dumpPointsToSet(result, file);
-            case "compare" -> comparePointsToSet(result, file);
+            case "dump" -> {
+                if (binary) {
+                    PointsToSnapshot.write(result, file);
+                } else {
+                    dumpPointsToSet(result, file);
+                }
+            }
+            case "compare" -> comparePointsToSet(result, file, binary);
+        }
+    }
+
+    /**
+     * @return true if the results are dumped/compared in binary format
+     * (see {@link PointsToSnapshot}), or false for text format.
+     */
+    private static boolean isBinaryFormat(String format, String file) {
+        if (format == null || format.equals("text")) {
+            return false;
+        } else if (format.equals("binary")) {
+            if (file == null) {
+                throw new ConfigException("Binary format requires option file");
+            }
+            return true;
+        } else {
+            throw new ConfigException("Unexpected result format: " + format);
         }
     }
 
@@ -111,6 +143,11 @@ public class ResultProcessor {
                 format(reachableInsens), format(reachableSens));
         System.out.printf("%-30s%s (insens) / %s (sens)%n", "#call graph edges:",
                 format(callEdgeInsens), format(callEdgeSens));
+        Integer collapsedNodes = result.getResult(COLLAPSED_NODES);
+        if (collapsedNodes != null) {
+            System.out.printf("%-30s%s (sens)%n", "#collapsed PFG nodes:",
+                    format(collapsedNodes));
+        }
         System.out.println("----------------------------------------");
     }
 
@@ -148,14 +185,26 @@ public class ResultProcessor {
         out.println();
     }
 
-    private static void comparePointsToSet(PointerAnalysisResult result, String input) {
+    private static void comparePointsToSet(PointerAnalysisResult result,
+                                           String input, boolean binary) {
         logger.info("Comparing points-to set with {} ...", input);
-        var inputs = readPointsToSets(input);
         Map<String, Pointer> pointers = new LinkedHashMap<>();
         addPointers(pointers, result.getCSVars());
         addPointers(pointers, result.getStaticFields());
         addPointers(pointers, result.getInstanceFields());
         addPointers(pointers, result.getArrayIndexes());
+        List<String> mismatches = binary
+                ? compareWithSnapshot(pointers, input)
+                : compareWithText(pointers, input);
+        if (!mismatches.isEmpty()) {
+            throw new AnalysisException("Mismatches of points-to set\n" +
+                    String.join("\n", mismatches));
+        }
+    }
+
+    private static List<String> compareWithText(Map<String, Pointer> pointers,
+                                                String input) {
+        Map<String, String> inputs = readPointsToSets(input);
         List<String> mismatches = new ArrayList<>();
         pointers.forEach((pointerStr, pointer) -> {
             String given = toString(pointer.getPointsToSet());
@@ -173,10 +222,7 @@ public class ResultProcessor {
                     mismatches.add(String.format("%s, expected: %s, given: null",
                             pointerStr, expected));
                 });
-        if (!mismatches.isEmpty()) {
-            throw new AnalysisException("Mismatches of points-to set\n" +
-                    String.join("\n", mismatches));
-        }
+        return mismatches;
     }
 
     private static Map<String, String> readPointsToSets(String input) {
@@ -193,6 +239,41 @@ public class ResultProcessor {
         }
     }
 
+    /**
+     * Compares with the snapshot in given file. The points-to set of each
+     * pointer is looked up in the snapshot, so that the snapshot is not
+     * loaded as a whole; it is only scanned when it has extra pointers.
+     */
+    private static List<String> compareWithSnapshot(Map<String, Pointer> pointers,
+                                                    String input) {
+        PointsToSnapshot snapshot = PointsToSnapshot.open(input);
+        List<String> mismatches = new ArrayList<>();
+        int found = 0;
+        for (Map.Entry<String, Pointer> entry : pointers.entrySet()) {
+            Pointer pointer = entry.getValue();
+            String given = toString(pointer.getPointsToSet());
+            List<String> objects = snapshot.getPointsToSet(pointer);
+            String expected = null;
+            if (objects != null) {
+                ++found;
+                expected = toString(objects);
+            }
+            if (!given.equals(expected)) {
+                mismatches.add(String.format("%s, expected: %s, given: %s",
+                        entry.getKey(), expected, given));
+            }
+        }
+        if (found < snapshot.getNumberOfPointers()) {
+            snapshot.forEachPointer((pointerStr, objects) -> {
+                if (!pointers.containsKey(pointerStr)) {
+                    mismatches.add(String.format("%s, expected: %s, given: null",
+                            pointerStr, toString(objects)));
+                }
+            });
+        }
+        return mismatches;
+    }
+
     private static void addPointers(Map<String, Pointer> map,
                                     Collection<? extends Pointer> pointers) {
         pointers.stream()
@@ -203,4 +284,8 @@ public class ResultProcessor {
     private static String toString(PointsToSet pts) {
         return Streams.toString(pts.objects());
     }
+
+    private static String toString(List<String> objects) {
+        return "[" + String.join(", ", objects) + "]";
+    }
 }
@@ -0,0 +1,327 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.pts;
+
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.util.Indexer;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Points-to set represented by a sparse bit vector over the indexes
+ * of {@link CSObj}. The bit vector consists of 64-bit words, and only
+ * non-zero words are stored, together with their word offsets (keys),
+ * sorted in ascending order. Union of two bit-vector sets is computed
+ * word by word without hashing any objects.
+ */
+class BitVectorPointsToSet implements PointsToSet {
+
+    private static final int ADDRESS_BITS_PER_WORD = 6;
+
+    private static final int BITS_PER_WORD = 1 << ADDRESS_BITS_PER_WORD;
+
+    private static final int DEFAULT_CAPACITY = 2;
+
+    private static final int[] EMPTY_KEYS = new int[0];
+
+    private static final long[] EMPTY_WORDS = new long[0];
+
+    private final Indexer<CSObj> indexer;
+
+    /**
+     * Word offsets of non-zero words, in ascending order.
+     */
+    private int[] keys = EMPTY_KEYS;
+
+    /**
+     * Non-zero words; words[i] holds the bits of word offset keys[i].
+     */
+    private long[] words = EMPTY_WORDS;
+
+    /**
+     * Number of words in use.
+     */
+    private int length = 0;
+
+    /**
+     * Number of objects in this set.
+     */
+    private int size = 0;
+
+    BitVectorPointsToSet(Indexer<CSObj> indexer) {
+        this.indexer = indexer;
+    }
+
+    @Override
+    public boolean addObject(CSObj obj) {
+        int index = indexer.getIndex(obj);
+        int key = index >>> ADDRESS_BITS_PER_WORD;
+        long mask = 1L << index;
+        int i = Arrays.binarySearch(keys, 0, length, key);
+        if (i >= 0) {
+            if ((words[i] & mask) != 0) {
+                return false;
+            }
+            words[i] |= mask;
+        } else {
+            insertWord(-(i + 1), key, mask);
+        }
+        ++size;
+        return true;
+    }
+
+    @Override
+    public boolean addAll(PointsToSet pts) {
+        if (pts instanceof BitVectorPointsToSet other) {
+            return union(other, null);
+        }
+        boolean changed = false;
+        for (CSObj obj : pts) {
+            changed |= addObject(obj);
+        }
+        return changed;
+    }
+
+    @Override
+    public PointsToSet addAllDiff(PointsToSet pts) {
+        BitVectorPointsToSet diff = new BitVectorPointsToSet(indexer);
+        if (pts instanceof BitVectorPointsToSet other) {
+            union(other, diff);
+        } else {
+            for (CSObj obj : pts) {
+                if (addObject(obj)) {
+                    diff.addObject(obj);
+                }
+            }
+        }
+        return diff;
+    }
+
+    @Override
+    public boolean contains(CSObj obj) {
+        int index = indexer.getIndex(obj);
+        if (index < 0) {
+            return false;
+        }
+        int i = Arrays.binarySearch(keys, 0, length,
+                index >>> ADDRESS_BITS_PER_WORD);
+        return i >= 0 && (words[i] & (1L << index)) != 0;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Set<CSObj> getObjects() {
+        return new AbstractSet<>() {
+
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof CSObj csObj &&
+                        BitVectorPointsToSet.this.contains(csObj);
+            }
+
+            @Override
+            public Iterator<CSObj> iterator() {
+                return new ObjIterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public Stream<CSObj> objects() {
+        return getObjects().stream();
+    }
+
+    @Override
+    public Iterator<CSObj> iterator() {
+        return new ObjIterator();
+    }
+
+    @Override
+    public String toString() {
+        return getObjects().toString();
+    }
+
+    /**
+     * Inserts a new word at position pos of the word array.
+     */
+    private void insertWord(int pos, int key, long word) {
+        if (length == keys.length) {
+            int capacity = Math.max(DEFAULT_CAPACITY, length + (length >> 1));
+            keys = Arrays.copyOf(keys, capacity);
+            words = Arrays.copyOf(words, capacity);
+        }
+        System.arraycopy(keys, pos, keys, pos + 1, length - pos);
+        System.arraycopy(words, pos, words, pos + 1, length - pos);
+        keys[pos] = key;
+        words[pos] = word;
+        ++length;
+    }
+
+    /**
+     * Unions other into this set word by word.
+     *
+     * @param diff if not null, the objects that are newly added to this set
+     *             are also added to diff, which must be empty.
+     * @return true if this set changed as a result of the call.
+     */
+    private boolean union(BitVectorPointsToSet other, BitVectorPointsToSet diff) {
+        int otherLength = other.length;
+        if (otherLength == 0) {
+            return false;
+        }
+        int[] otherKeys = other.keys;
+        long[] otherWords = other.words;
+        // count the words of other whose keys are absent in this set
+        int absent = 0;
+        for (int i = 0, j = 0; j < otherLength; ) {
+            if (i < length && keys[i] < otherKeys[j]) {
+                ++i;
+            } else {
+                if (i >= length || keys[i] != otherKeys[j]) {
+                    ++absent;
+                } else {
+                    ++i;
+                }
+                ++j;
+            }
+        }
+        int newLength = length + absent;
+        int[] newKeys = keys;
+        long[] newWords = words;
+        if (newLength > keys.length) {
+            int capacity = Math.max(newLength, length + (length >> 1));
+            newKeys = new int[capacity];
+            newWords = new long[capacity];
+        }
+        int[] diffKeys = null;
+        long[] diffWords = null;
+        int d = otherLength;
+        if (diff != null) {
+            diffKeys = new int[otherLength];
+            diffWords = new long[otherLength];
+        }
+        // merge from the highest word, so that the merge can be
+        // performed in place when newKeys == keys
+        int i = length - 1, j = otherLength - 1, k = newLength - 1;
+        int added = 0;
+        while (j >= 0) {
+            long addedWord;
+            if (i >= 0 && keys[i] > otherKeys[j]) {
+                newKeys[k] = keys[i];
+                newWords[k] = words[i];
+                --i;
+                --k;
+                continue;
+            } else if (i >= 0 && keys[i] == otherKeys[j]) {
+                long word = words[i];
+                addedWord = otherWords[j] & ~word;
+                newKeys[k] = keys[i];
+                newWords[k] = word | addedWord;
+                --i;
+            } else {
+                addedWord = otherWords[j];
+                newKeys[k] = otherKeys[j];
+                newWords[k] = addedWord;
+            }
+            if (addedWord != 0) {
+                added += Long.bitCount(addedWord);
+                if (diff != null) {
+                    --d;
+                    diffKeys[d] = otherKeys[j];
+                    diffWords[d] = addedWord;
+                }
+            }
+            --j;
+            --k;
+        }
+        if (newKeys != keys) {
+            // copy the remaining lower words
+            System.arraycopy(keys, 0, newKeys, 0, i + 1);
+            System.arraycopy(words, 0, newWords, 0, i + 1);
+            keys = newKeys;
+            words = newWords;
+        }
+        length = newLength;
+        size += added;
+        if (diff != null && d < otherLength) {
+            diff.keys = Arrays.copyOfRange(diffKeys, d, otherLength);
+            diff.words = Arrays.copyOfRange(diffWords, d, otherLength);
+            diff.length = otherLength - d;
+            diff.size = added;
+        }
+        return added > 0;
+    }
+
+    private class ObjIterator implements Iterator<CSObj> {
+
+        /**
+         * Position of the current word.
+         */
+        private int pos = 0;
+
+        /**
+         * Remaining bits of the current word.
+         */
+        private long word = length > 0 ? words[0] : 0;
+
+        @Override
+        public boolean hasNext() {
+            while (word == 0) {
+                if (++pos >= length) {
+                    return false;
+                }
+                word = words[pos];
+            }
+            return true;
+        }
+
+        @Override
+        public CSObj next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int bit = Long.numberOfTrailingZeros(word);
+            word &= word - 1;
+            return indexer.getObject(keys[pos] * BITS_PER_WORD + bit);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.cs.selector;
+
+import org.junit.Test;
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.cs.context.ListContext;
+import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
+import pascal.taie.analysis.pta.core.cs.element.CSManager;
+import pascal.taie.analysis.pta.core.cs.element.CSMethod;
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.core.cs.element.IndexedCSManager;
+import pascal.taie.analysis.pta.core.heap.MockObj;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.ir.exp.InvokeStatic;
+import pascal.taie.ir.proginfo.MethodRef;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.annotation.AnnotationHolder;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.NullType;
+import pascal.taie.language.type.VoidType;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertSame;
+
+public class SelectiveSelectorTest {
+
+    /**
+     * Selector that marks every context it selects with its name.
+     */
+    private record NamedSelector(String name) implements ContextSelector {
+
+        @Override
+        public Context getEmptyContext() {
+            return ListContext.make();
+        }
+
+        @Override
+        public Context selectContext(CSCallSite callSite, JMethod callee) {
+            return ListContext.make(name, "static");
+        }
+
+        @Override
+        public Context selectContext(CSCallSite callSite, CSObj recv, JMethod callee) {
+            return ListContext.make(name, "instance");
+        }
+
+        @Override
+        public Context selectHeapContext(CSMethod method, Obj obj) {
+            return ListContext.make(name, "heap");
+        }
+    }
+
+    private static final JClass CLASS = new JClass(null, "Test");
+
+    private static JMethod method(String name) {
+        return new JMethod(CLASS, name, Set.of(), List.of(), VoidType.VOID,
+                List.of(), AnnotationHolder.emptyHolder(), null, null);
+    }
+
+    @Test
+    public void testDispatch() {
+        JMethod caller = method("caller");
+        JMethod precise = method("precise");
+        JMethod cheap = method("cheap");
+        JMethod other = method("other");
+        ContextSelector selector = new SelectiveSelector(
+                Map.of(precise, new NamedSelector("2-obj"),
+                        cheap, new NamedSelector("1-type")),
+                new NamedSelector("ci"));
+        CSManager csManager = new IndexedCSManager();
+        Context empty = selector.getEmptyContext();
+        assertSame(ListContext.make(), empty);
+        MethodRef ref = MethodRef.get(CLASS, "callee", List.of(), VoidType.VOID, true);
+        Invoke invoke = new Invoke(caller, new InvokeStatic(ref, List.of()));
+        CSCallSite callSite = csManager.getCSCallSite(empty, invoke);
+        CSObj recv = csManager.getCSObj(empty, new MockObj("test", "recv", NullType.NULL));
+        Obj obj = new MockObj("test", "obj", NullType.NULL);
+
+        // callee contexts are selected by the selector of the callee
+        assertSame(ListContext.make("2-obj", "static"),
+                selector.selectContext(callSite, precise));
+        assertSame(ListContext.make("2-obj", "instance"),
+                selector.selectContext(callSite, recv, precise));
+        assertSame(ListContext.make("1-type", "instance"),
+                selector.selectContext(callSite, recv, cheap));
+        assertSame(ListContext.make("ci", "static"),
+                selector.selectContext(callSite, other));
+        assertSame(ListContext.make("ci", "instance"),
+                selector.selectContext(callSite, recv, other));
+
+        // heap contexts are selected by the selector of the allocating method
+        assertSame(ListContext.make("2-obj", "heap"), selector.selectHeapContext(
+                csManager.getCSMethod(empty, precise), obj));
+        assertSame(ListContext.make("1-type", "heap"), selector.selectHeapContext(
+                csManager.getCSMethod(empty, cheap), obj));
+        assertSame(ListContext.make("ci", "heap"), selector.selectHeapContext(
+                csManager.getCSMethod(empty, other), obj));
+    }
+}
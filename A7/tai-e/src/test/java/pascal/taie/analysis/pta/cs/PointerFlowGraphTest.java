@@ -0,0 +1,183 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.cs;
+
+import org.junit.Before;
+import org.junit.Test;
+import pascal.taie.analysis.pta.core.cs.context.ListContext;
+import pascal.taie.analysis.pta.core.cs.element.CSManager;
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.core.cs.element.IndexedCSManager;
+import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.analysis.pta.pts.PointsToSetFactory;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.Type;
+
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class PointerFlowGraphTest {
+
+    private record TestObj(String name) implements Obj {
+
+        @Override
+        public Type getType() {
+            return null;
+        }
+
+        @Override
+        public Object getAllocation() {
+            return name;
+        }
+
+        @Override
+        public Optional<JMethod> getContainerMethod() {
+            return Optional.empty();
+        }
+
+        @Override
+        public Type getContainerType() {
+            return null;
+        }
+    }
+
+    private static class Node implements Pointer {
+
+        private final String name;
+
+        private PointsToSet pointsToSet;
+
+        private Node(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public PointsToSet getPointsToSet() {
+            return pointsToSet;
+        }
+
+        @Override
+        public void setPointsToSet(PointsToSet pointsToSet) {
+            this.pointsToSet = pointsToSet;
+        }
+
+        @Override
+        public Type getType() {
+            return null;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    private CSManager csManager;
+
+    @Before
+    public void setUp() {
+        csManager = new IndexedCSManager();
+        PointsToSetFactory.setImplementation("hybrid", csManager.getObjectIndexer());
+    }
+
+    private Node node(String name, String... objs) {
+        Node node = new Node(name);
+        PointsToSet pts = PointsToSetFactory.make();
+        for (String obj : objs) {
+            pts.addObject(obj(obj));
+        }
+        node.setPointsToSet(pts);
+        return node;
+    }
+
+    private CSObj obj(String name) {
+        return csManager.getCSObj(ListContext.make(), new TestObj(name));
+    }
+
+    @Test
+    public void testCollapseCycle() {
+        PointerFlowGraph pfg = new PointerFlowGraph(true);
+        Node a = node("a", "o1");
+        Node b = node("b", "o2");
+        Node c = node("c");
+        pfg.addEdge(a, b);
+        pfg.addEdge(b, a);
+        pfg.addEdge(b, c);
+        PointsToSet merged = pfg.detectCycle(a, b);
+        assertEquals(Set.of(obj("o1"), obj("o2")), merged.getObjects());
+        assertSame(pfg.getRepresentative(a), pfg.getRepresentative(b));
+        assertSame(a.getPointsToSet(), b.getPointsToSet());
+        assertEquals(Set.of(a, b), pfg.getMembersOf(a));
+        assertEquals(Set.of(c), pfg.getSuccsOf(a));
+        assertEquals(1, pfg.getCollapsedNodes());
+        // edges inside a collapsed cycle are dropped
+        assertFalse(pfg.addEdge(a, b));
+        // each edge is checked only once
+        assertNull(pfg.detectCycle(a, c));
+        assertNull(pfg.detectCycle(a, c));
+    }
+
+    @Test
+    public void testCollapseIntoExistingRepresentative() {
+        PointerFlowGraph pfg = new PointerFlowGraph(true);
+        Node a = node("a", "o1");
+        Node b = node("b", "o2");
+        Node c = node("c", "o3");
+        pfg.addEdge(a, b);
+        pfg.addEdge(b, a);
+        pfg.detectCycle(a, b);
+        Pointer rep = pfg.getRepresentative(a);
+        // close a second cycle through the collapsed pointers, so that
+        // the existing representative is the first pointer of the new SCC
+        pfg.addEdge(b, c);
+        pfg.addEdge(c, a);
+        PointsToSet merged = pfg.detectCycle(b, c);
+        assertTrue(merged.contains(obj("o3")));
+        assertSame(rep, pfg.getRepresentative(c));
+        assertSame(a.getPointsToSet(), b.getPointsToSet());
+        assertSame(a.getPointsToSet(), c.getPointsToSet());
+        assertEquals(Set.of(a, b, c), pfg.getMembersOf(b));
+        assertEquals(Set.of(), pfg.getSuccsOf(c));
+        assertEquals(2, pfg.getCollapsedNodes());
+    }
+
+    @Test
+    public void testNoCycleElim() {
+        PointerFlowGraph pfg = new PointerFlowGraph(false);
+        Node a = node("a");
+        Node b = node("b");
+        pfg.addEdge(a, b);
+        assertTrue(pfg.addEdge(b, a));
+        assertNull(pfg.detectCycle(a, b));
+        assertEquals(Set.of(a), pfg.getMembersOf(a));
+        assertEquals(0, pfg.getCollapsedNodes());
+    }
+}
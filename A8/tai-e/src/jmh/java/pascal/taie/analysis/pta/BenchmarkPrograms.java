@@ -0,0 +1,77 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta;
+
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.config.AnalysisOptions;
+import pascal.taie.language.classes.JMethod;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Static utility methods for setting up benchmarks on the test programs
+ * of pointer analysis.
+ */
+public final class BenchmarkPrograms {
+
+    private BenchmarkPrograms() {
+    }
+
+    /**
+     * Directory of the test programs.
+     */
+    public static final String DIR = "src/test/resources/pta/cspta";
+
+    /**
+     * Builds the world for given main class in {@link #DIR}.
+     */
+    public static void buildWorld(String main) {
+        World.reset();
+        Main.buildWorld("-pp", "-cp", DIR, "-m", main);
+    }
+
+    /**
+     * @return the application methods that have bodies in current world.
+     */
+    public static List<JMethod> getApplicationMethods() {
+        return World.get()
+                .getClassHierarchy()
+                .applicationClasses()
+                .flatMap(c -> c.getDeclaredMethods().stream())
+                .filter(m -> !m.isAbstract() && !m.isNative())
+                .toList();
+    }
+
+    /**
+     * @return the options for making heap models.
+     */
+    public static AnalysisOptions getHeapModelOptions() {
+        return new AnalysisOptions(Map.of(
+                "merge-string-constants", false,
+                "merge-string-objects", false,
+                "merge-string-builders", false,
+                "merge-exception-objects", true));
+    }
+}
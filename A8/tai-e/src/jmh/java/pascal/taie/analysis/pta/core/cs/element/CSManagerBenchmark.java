@@ -0,0 +1,167 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.cs.element;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import pascal.taie.World;
+import pascal.taie.analysis.pta.BenchmarkPrograms;
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.cs.context.ListContext;
+import pascal.taie.analysis.pta.core.heap.AllocationSiteBasedModel;
+import pascal.taie.analysis.pta.core.heap.HeapModel;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.New;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.classes.JMethod;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of looking up context-sensitive elements, which happens
+ * for almost every statement the solver processes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class CSManagerBenchmark {
+
+    @Param({"map", "array"})
+    private String impl;
+
+    @Param({"TwoObject"})
+    private String main;
+
+    private CSManager csManager;
+
+    private final List<Context> contexts = new ArrayList<>();
+
+    private final List<Var> vars = new ArrayList<>();
+
+    private final List<Obj> objs = new ArrayList<>();
+
+    private final List<Invoke> callSites = new ArrayList<>();
+
+    private final List<JField> fields = new ArrayList<>();
+
+    private final List<CSObj> csObjs = new ArrayList<>();
+
+    @Setup
+    public void setup() {
+        BenchmarkPrograms.buildWorld(main);
+        HeapModel heapModel = new AllocationSiteBasedModel(
+                BenchmarkPrograms.getHeapModelOptions());
+        for (JMethod method : BenchmarkPrograms.getApplicationMethods()) {
+            vars.addAll(method.getIR().getVars());
+            for (Stmt stmt : method.getIR()) {
+                if (stmt instanceof New newStmt) {
+                    objs.add(heapModel.getObj(newStmt));
+                } else if (stmt instanceof Invoke invoke) {
+                    callSites.add(invoke);
+                }
+            }
+        }
+        World.get().getClassHierarchy().applicationClasses()
+                .flatMap(c -> c.getDeclaredFields().stream())
+                .filter(f -> !f.isStatic())
+                .forEach(fields::add);
+        // 2-object-sensitive-like contexts
+        contexts.add(ListContext.make());
+        for (Obj o1 : objs) {
+            contexts.add(ListContext.make(o1));
+            for (Obj o2 : objs) {
+                contexts.add(ListContext.make(o1, o2));
+            }
+        }
+        csManager = switch (impl) {
+            case "map" -> new IndexedCSManager();
+            case "array" -> new ArrayBasedCSManager();
+            default -> throw new IllegalArgumentException(impl);
+        };
+        // populate the manager, so that the benchmarks measure lookups
+        for (Context context : contexts) {
+            for (Obj obj : objs) {
+                csObjs.add(csManager.getCSObj(context, obj));
+            }
+            vars.forEach(var -> csManager.getCSVar(context, var));
+            callSites.forEach(callSite -> csManager.getCSCallSite(context, callSite));
+        }
+        for (CSObj csObj : csObjs) {
+            fields.forEach(field -> csManager.getInstanceField(csObj, field));
+        }
+    }
+
+    @Benchmark
+    public void getCSVar(Blackhole bh) {
+        for (Context context : contexts) {
+            for (Var var : vars) {
+                bh.consume(csManager.getCSVar(context, var));
+            }
+        }
+    }
+
+    @Benchmark
+    public void getCSObj(Blackhole bh) {
+        for (Context context : contexts) {
+            for (Obj obj : objs) {
+                bh.consume(csManager.getCSObj(context, obj));
+            }
+        }
+    }
+
+    @Benchmark
+    public void getCSCallSite(Blackhole bh) {
+        for (Context context : contexts) {
+            for (Invoke callSite : callSites) {
+                bh.consume(csManager.getCSCallSite(context, callSite));
+            }
+        }
+    }
+
+    @Benchmark
+    public void getInstanceField(Blackhole bh) {
+        for (CSObj csObj : csObjs) {
+            for (JField field : fields) {
+                bh.consume(csManager.getInstanceField(csObj, field));
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.cs.selector;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import pascal.taie.analysis.pta.BenchmarkPrograms;
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.cs.context.ListContext;
+import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
+import pascal.taie.analysis.pta.core.cs.element.CSManager;
+import pascal.taie.analysis.pta.core.cs.element.CSMethod;
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.core.cs.element.IndexedCSManager;
+import pascal.taie.analysis.pta.core.heap.AllocationSiteBasedModel;
+import pascal.taie.analysis.pta.core.heap.HeapModel;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.New;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JMethod;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of context selection, which happens on every call edge
+ * and allocation site the solver processes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ContextSelectorBenchmark {
+
+    @Param({"ci", "1-call", "1-obj", "1-type", "2-call", "2-obj", "2-type"})
+    private String cs;
+
+    @Param({"TwoObject"})
+    private String main;
+
+    private ContextSelector selector;
+
+    private final List<CSCallSite> callSites = new ArrayList<>();
+
+    private final List<JMethod> callees = new ArrayList<>();
+
+    private final List<CSObj> recvObjs = new ArrayList<>();
+
+    private final List<CSMethod> containers = new ArrayList<>();
+
+    private final List<Obj> objs = new ArrayList<>();
+
+    @Setup
+    public void setup() {
+        selector = switch (cs) {
+            case "ci" -> new CISelector();
+            case "1-call" -> new _1CallSelector();
+            case "1-obj" -> new _1ObjSelector();
+            case "1-type" -> new _1TypeSelector();
+            case "2-call" -> new _2CallSelector();
+            case "2-obj" -> new _2ObjSelector();
+            case "2-type" -> new _2TypeSelector();
+            default -> throw new IllegalArgumentException(cs);
+        };
+        BenchmarkPrograms.buildWorld(main);
+        HeapModel heapModel = new AllocationSiteBasedModel(
+                BenchmarkPrograms.getHeapModelOptions());
+        CSManager csManager = new IndexedCSManager();
+        List<JMethod> methods = BenchmarkPrograms.getApplicationMethods();
+        for (JMethod method : methods) {
+            for (Stmt stmt : method.getIR()) {
+                if (stmt instanceof New newStmt) {
+                    objs.add(heapModel.getObj(newStmt));
+                }
+            }
+        }
+        // use objects as contexts of all lengths up to 2
+        List<Context> contexts = new ArrayList<>();
+        contexts.add(ListContext.make());
+        for (Obj o1 : objs) {
+            contexts.add(ListContext.make(o1));
+            for (Obj o2 : objs) {
+                contexts.add(ListContext.make(o1, o2));
+            }
+        }
+        for (Context context : contexts) {
+            for (JMethod method : methods) {
+                containers.add(csManager.getCSMethod(context, method));
+                for (Stmt stmt : method.getIR()) {
+                    if (stmt instanceof Invoke invoke) {
+                        callSites.add(csManager.getCSCallSite(context, invoke));
+                        callees.add(method);
+                    }
+                }
+            }
+            for (Obj obj : objs) {
+                recvObjs.add(csManager.getCSObj(context, obj));
+            }
+        }
+    }
+
+    @Benchmark
+    public void selectStaticContext(Blackhole bh) {
+        for (int i = 0; i < callSites.size(); ++i) {
+            bh.consume(selector.selectContext(callSites.get(i), callees.get(i)));
+        }
+    }
+
+    @Benchmark
+    public void selectInstanceContext(Blackhole bh) {
+        for (int i = 0; i < callSites.size(); ++i) {
+            CSObj recv = recvObjs.get(i % recvObjs.size());
+            bh.consume(selector.selectContext(callSites.get(i), recv, callees.get(i)));
+        }
+    }
+
+    @Benchmark
+    public void selectHeapContext(Blackhole bh) {
+        for (int i = 0; i < containers.size(); ++i) {
+            Obj obj = objs.get(i % objs.size());
+            bh.consume(selector.selectHeapContext(containers.get(i), obj));
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.pts;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.cs.context.ListContext;
+import pascal.taie.analysis.pta.core.cs.element.CSManager;
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.core.cs.element.IndexedCSManager;
+import pascal.taie.analysis.pta.core.heap.MockObj;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of unions of points-to sets, which dominate propagation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class PointsToSetBenchmark {
+
+    @Param({"hybrid", "bit-vector"})
+    private String impl;
+
+    /**
+     * Number of objects in each points-to set.
+     */
+    @Param({"8", "64", "4096"})
+    private int size;
+
+    private PointsToSet source;
+
+    private PointsToSet target;
+
+    @Setup
+    public void setup() {
+        CSManager csManager = new IndexedCSManager();
+        PointsToSetFactory.setImplementation(impl, csManager.getObjectIndexer());
+        Context context = ListContext.make();
+        Random random = new Random(0);
+        source = PointsToSetFactory.make();
+        target = PointsToSetFactory.make();
+        // the two sets overlap in about a third of their objects
+        for (int i = 0; source.size() < size || target.size() < size; ++i) {
+            CSObj obj = csManager.getCSObj(context, new MockObj("benchmark", i, null));
+            int r = random.nextInt(3);
+            if (r != 0 && source.size() < size) {
+                source.addObject(obj);
+            }
+            if (r != 1 && target.size() < size) {
+                target.addObject(obj);
+            }
+        }
+    }
+
+    @Benchmark
+    public PointsToSet addAll() {
+        PointsToSet pts = PointsToSetFactory.make();
+        pts.addAll(target);
+        pts.addAll(source);
+        return pts;
+    }
+
+    @Benchmark
+    public PointsToSet addAllDiff() {
+        PointsToSet pts = PointsToSetFactory.make();
+        pts.addAll(target);
+        return pts.addAllDiff(source);
+    }
+}
@@ -0,0 +1,502 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.cs.element;
+
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.cs.context.ListContext;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.analysis.pta.pts.PointsToSetFactory;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.Indexable;
+import pascal.taie.util.Indexer;
+import pascal.taie.util.collection.Maps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link CSManager} that lays context-sensitive elements out in arrays
+ * indexed by ints instead of nested hash maps.
+ * <p>
+ * Contexts, methods, objects and fields are identified by dense ids
+ * numbered by this manager, each of them is hashed only once. Variables
+ * and call sites are located by the id of their containing method and
+ * their own index in the method ({@link Var#getIndex()},
+ * {@link Invoke#getIndex()}), and instance fields and array indexes are
+ * located by the index of their base {@link CSObj}. Like
+ * {@link IndexedCSManager}, this manager also assigns each
+ * context-sensitive object a dense index.
+ * <p>
+ * The context-sensitive elements of a variable, an object, a call site or
+ * a method are kept in a {@link ContextMap} keyed by context id, whose
+ * size is proportional to the number of contexts the element is actually
+ * used with, instead of the number of contexts of the whole analysis.
+ */
+public class ArrayBasedCSManager implements CSManager {
+
+    /**
+     * Ids of the contexts which are not {@link Indexable}.
+     */
+    private final Map<Context, Integer> contextIds = Maps.newMap();
+
+    /**
+     * indexedContextIds[i] - 1 is the id of the {@link Indexable} context
+     * whose index is i, or -1 if the context has not been seen.
+     * The indexes of such contexts (e.g., {@link ListContext}) only
+     * identify the contexts, and may be sparse.
+     */
+    private int[] indexedContextIds = new int[0];
+
+    private int numberOfContexts = 0;
+
+    private final Interner<JMethod> methods = new Interner<>();
+
+    private final Interner<Obj> objs = new Interner<>();
+
+    private final Interner<JField> fields = new Interner<>();
+
+    /**
+     * Tables of the elements in each method, indexed by method id.
+     */
+    private MethodTable[] methodTables = new MethodTable[0];
+
+    /**
+     * Context-sensitive objects, indexed by object id and then context id.
+     */
+    private ContextMap<CSObj>[] csObjs = ContextMap.emptyArray();
+
+    /**
+     * Static fields, indexed by field id.
+     */
+    private StaticField[] staticFields = new StaticField[0];
+
+    /**
+     * Instance fields, indexed by [base index][field id].
+     */
+    private InstanceField[][] instanceFields = new InstanceField[0][];
+
+    /**
+     * Array indexes, indexed by array index.
+     */
+    private ArrayIndex[] arrayIndexes = new ArrayIndex[0];
+
+    /**
+     * The method whose table was accessed last. Consecutive accesses
+     * mostly concern the same method, so caching it saves the hashing
+     * of the method.
+     */
+    private JMethod lastMethod;
+
+    private MethodTable lastMethodTable;
+
+    private final List<Var> varList = new ArrayList<>();
+
+    private final List<CSVar> csVarList = new ArrayList<>();
+
+    private final List<CSObj> csObjList = new ArrayList<>();
+
+    private final List<StaticField> staticFieldList = new ArrayList<>();
+
+    private final List<InstanceField> instanceFieldList = new ArrayList<>();
+
+    private final List<ArrayIndex> arrayIndexList = new ArrayList<>();
+
+    private final Indexer<CSObj> objIndexer = new Indexer<>() {
+        @Override
+        public int getIndex(CSObj o) {
+            return o.getIndex();
+        }
+
+        @Override
+        public CSObj getObject(int index) {
+            return csObjList.get(index);
+        }
+    };
+
+    @Override
+    public CSVar getCSVar(Context context, Var var) {
+        MethodTable table = getMethodTable(var.getMethod());
+        int index = var.getIndex();
+        table.vars = ensureCapacity(table.vars, index);
+        ContextMap<CSVar> row = table.vars[index];
+        if (row == null) {
+            varList.add(var);
+            row = new ContextMap<>();
+            table.vars[index] = row;
+        }
+        int ctxId = getContextId(context);
+        CSVar csVar = row.get(ctxId);
+        if (csVar == null) {
+            csVar = initializePointsToSet(new CSVar(var, context));
+            row.put(ctxId, csVar);
+            csVarList.add(csVar);
+        }
+        return csVar;
+    }
+
+    @Override
+    public CSObj getCSObj(Context heapContext, Obj obj) {
+        int objId = objs.getId(obj);
+        csObjs = ensureCapacity(csObjs, objId);
+        ContextMap<CSObj> row = csObjs[objId];
+        if (row == null) {
+            row = new ContextMap<>();
+            csObjs[objId] = row;
+        }
+        int ctxId = getContextId(heapContext);
+        CSObj csObj = row.get(ctxId);
+        if (csObj == null) {
+            csObj = new CSObj(obj, heapContext);
+            csObj.setIndex(csObjList.size());
+            row.put(ctxId, csObj);
+            csObjList.add(csObj);
+        }
+        return csObj;
+    }
+
+    @Override
+    public CSCallSite getCSCallSite(Context context, Invoke callSite) {
+        MethodTable table = getMethodTable(callSite.getContainer());
+        int index = callSite.getIndex();
+        table.callSites = ensureCapacity(table.callSites, index);
+        ContextMap<CSCallSite> row = table.callSites[index];
+        if (row == null) {
+            row = new ContextMap<>();
+            table.callSites[index] = row;
+        }
+        int ctxId = getContextId(context);
+        CSCallSite csCallSite = row.get(ctxId);
+        if (csCallSite == null) {
+            csCallSite = new CSCallSite(callSite, context);
+            row.put(ctxId, csCallSite);
+        }
+        return csCallSite;
+    }
+
+    @Override
+    public CSMethod getCSMethod(Context context, JMethod method) {
+        MethodTable table = getMethodTable(method);
+        int ctxId = getContextId(context);
+        CSMethod csMethod = table.csMethods.get(ctxId);
+        if (csMethod == null) {
+            csMethod = new CSMethod(method, context);
+            table.csMethods.put(ctxId, csMethod);
+        }
+        return csMethod;
+    }
+
+    @Override
+    public StaticField getStaticField(JField field) {
+        int fieldId = fields.getId(field);
+        staticFields = ensureCapacity(staticFields, fieldId);
+        StaticField staticField = staticFields[fieldId];
+        if (staticField == null) {
+            staticField = initializePointsToSet(new StaticField(field));
+            staticFields[fieldId] = staticField;
+            staticFieldList.add(staticField);
+        }
+        return staticField;
+    }
+
+    @Override
+    public InstanceField getInstanceField(CSObj base, JField field) {
+        int baseIndex = base.getIndex();
+        instanceFields = ensureCapacity(instanceFields, baseIndex);
+        InstanceField[] row = instanceFields[baseIndex];
+        int fieldId = fields.getId(field);
+        row = ensureCapacity(row == null ? new InstanceField[0] : row, fieldId);
+        instanceFields[baseIndex] = row;
+        InstanceField instanceField = row[fieldId];
+        if (instanceField == null) {
+            instanceField = initializePointsToSet(new InstanceField(base, field));
+            row[fieldId] = instanceField;
+            instanceFieldList.add(instanceField);
+        }
+        return instanceField;
+    }
+
+    @Override
+    public ArrayIndex getArrayIndex(CSObj array) {
+        int arrayIndex = array.getIndex();
+        arrayIndexes = ensureCapacity(arrayIndexes, arrayIndex);
+        ArrayIndex result = arrayIndexes[arrayIndex];
+        if (result == null) {
+            result = initializePointsToSet(new ArrayIndex(array));
+            arrayIndexes[arrayIndex] = result;
+            arrayIndexList.add(result);
+        }
+        return result;
+    }
+
+    @Override
+    public Indexer<CSObj> getObjectIndexer() {
+        return objIndexer;
+    }
+
+    @Override
+    public Collection<Var> getVars() {
+        return Collections.unmodifiableList(varList);
+    }
+
+    @Override
+    public Collection<CSVar> getCSVarsOf(Var var) {
+        MethodTable table = getMethodTable(var.getMethod());
+        int index = var.getIndex();
+        if (index >= table.vars.length || table.vars[index] == null) {
+            return Collections.emptyList();
+        }
+        return table.vars[index].values();
+    }
+
+    @Override
+    public Collection<CSVar> getCSVars() {
+        return Collections.unmodifiableList(csVarList);
+    }
+
+    @Override
+    public Collection<CSObj> getObjects() {
+        return Collections.unmodifiableList(csObjList);
+    }
+
+    @Override
+    public Collection<StaticField> getStaticFields() {
+        return Collections.unmodifiableList(staticFieldList);
+    }
+
+    @Override
+    public Collection<InstanceField> getInstanceFields() {
+        return Collections.unmodifiableList(instanceFieldList);
+    }
+
+    @Override
+    public Collection<ArrayIndex> getArrayIndexes() {
+        return Collections.unmodifiableList(arrayIndexList);
+    }
+
+    /**
+     * @return the dense id of given context. Contexts that carry indexes,
+     * e.g., hash-consed {@link ListContext}, are looked up by their indexes
+     * without hashing, and other contexts are interned. Either way, the ids
+     * are numbered by this manager, so they are dense and never collide.
+     */
+    private int getContextId(Context context) {
+        if (context instanceof Indexable indexable) {
+            int index = indexable.getIndex();
+            if (index >= indexedContextIds.length) {
+                indexedContextIds = Arrays.copyOf(indexedContextIds,
+                        Math.max(index + 1, indexedContextIds.length * 2));
+            }
+            int id = indexedContextIds[index] - 1;
+            if (id < 0) {
+                id = numberOfContexts++;
+                indexedContextIds[index] = id + 1;
+            }
+            return id;
+        } else {
+            Integer id = contextIds.get(context);
+            if (id == null) {
+                id = numberOfContexts++;
+                contextIds.put(context, id);
+            }
+            return id;
+        }
+    }
+
+    private MethodTable getMethodTable(JMethod method) {
+        if (method != lastMethod) {
+            int methodId = methods.getId(method);
+            methodTables = ensureCapacity(methodTables, methodId);
+            MethodTable table = methodTables[methodId];
+            if (table == null) {
+                table = new MethodTable();
+                methodTables[methodId] = table;
+            }
+            lastMethod = method;
+            lastMethodTable = table;
+        }
+        return lastMethodTable;
+    }
+
+    private static <P extends Pointer> P initializePointsToSet(P pointer) {
+        pointer.setPointsToSet(PointsToSetFactory.make());
+        return pointer;
+    }
+
+    /**
+     * @return given array if it can hold given index, otherwise
+     * a larger copy of the array.
+     */
+    private static <T> T[] ensureCapacity(T[] array, int index) {
+        if (index < array.length) {
+            return array;
+        }
+        int newLength = Math.max(index + 1, array.length * 2);
+        return Arrays.copyOf(array, newLength);
+    }
+
+    /**
+     * Context-sensitive elements in a method.
+     */
+    private static class MethodTable {
+
+        /**
+         * Context-sensitive variables, indexed by var index
+         * and then context id.
+         */
+        private ContextMap<CSVar>[] vars = ContextMap.emptyArray();
+
+        /**
+         * Context-sensitive call sites, indexed by call site index
+         * and then context id.
+         */
+        private ContextMap<CSCallSite>[] callSites = ContextMap.emptyArray();
+
+        /**
+         * Context-sensitive methods, indexed by context id.
+         */
+        private final ContextMap<CSMethod> csMethods = new ContextMap<>();
+    }
+
+    /**
+     * Map from context ids to the context-sensitive elements of the same
+     * element, e.g., the {@link CSVar}s of a variable. Most elements are
+     * used with few contexts, so the ids are scanned linearly at first,
+     * and an open-addressing table is only built for larger maps.
+     * The elements are iterated in insertion order.
+     */
+    private static class ContextMap<E> {
+
+        /**
+         * Size above which the open-addressing table is used.
+         */
+        private static final int LINEAR_LIMIT = 8;
+
+        /**
+         * Context ids and elements, in insertion order.
+         */
+        private int[] ids = new int[1];
+
+        private Object[] elems = new Object[1];
+
+        private int size = 0;
+
+        /**
+         * Open-addressing table of (position in {@link #elems}) + 1,
+         * where 0 marks free slots; null while the map is small.
+         */
+        private int[] slots;
+
+        /**
+         * @return an empty array of context maps.
+         */
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private static <E> ContextMap<E>[] emptyArray() {
+            return (ContextMap<E>[]) new ContextMap[0];
+        }
+
+        @SuppressWarnings("unchecked")
+        private E get(int id) {
+            if (slots == null) {
+                for (int i = 0; i < size; ++i) {
+                    if (ids[i] == id) {
+                        return (E) elems[i];
+                    }
+                }
+                return null;
+            }
+            int mask = slots.length - 1;
+            for (int i = hash(id) & mask; slots[i] != 0; i = (i + 1) & mask) {
+                int pos = slots[i] - 1;
+                if (ids[pos] == id) {
+                    return (E) elems[pos];
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Adds an element for a context id which is not in this map.
+         */
+        private void put(int id, E elem) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                elems = Arrays.copyOf(elems, size * 2);
+            }
+            ids[size] = id;
+            elems[size] = elem;
+            ++size;
+            if (slots != null && size * 2 <= slots.length) {
+                insertSlot(size - 1);
+            } else if (size > LINEAR_LIMIT) {
+                slots = new int[Integer.highestOneBit(size) * 4];
+                for (int pos = 0; pos < size; ++pos) {
+                    insertSlot(pos);
+                }
+            }
+        }
+
+        private void insertSlot(int pos) {
+            int mask = slots.length - 1;
+            int i = hash(ids[pos]) & mask;
+            while (slots[i] != 0) {
+                i = (i + 1) & mask;
+            }
+            slots[i] = pos + 1;
+        }
+
+        private static int hash(int id) {
+            int h = id * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+
+        @SuppressWarnings("unchecked")
+        private List<E> values() {
+            return (List<E>) Collections.unmodifiableList(
+                    Arrays.asList(elems).subList(0, size));
+        }
+    }
+
+    /**
+     * Assigns each distinct element a dense id.
+     */
+    private static class Interner<E> {
+
+        private final Map<E, Integer> ids = Maps.newMap();
+
+        private int getId(E e) {
+            Integer id = ids.get(e);
+            if (id == null) {
+                id = ids.size();
+                ids.put(e, id);
+            }
+            return id;
+        }
+    }
+}
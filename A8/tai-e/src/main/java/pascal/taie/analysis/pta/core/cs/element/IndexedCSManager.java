@@ -0,0 +1,147 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.cs.element;
+
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.Indexer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * {@link CSManager} that manages context-sensitive elements via
+ * {@link MapBasedCSManager}, and additionally assigns each new
+ * context-sensitive object a dense index, so that points-to sets
+ * can be represented by bit vectors.
+ */
+public class IndexedCSManager implements CSManager {
+
+    private final CSManager delegate = new MapBasedCSManager();
+
+    private final ObjIndexer objIndexer = new ObjIndexer();
+
+    @Override
+    public CSVar getCSVar(Context context, Var var) {
+        return delegate.getCSVar(context, var);
+    }
+
+    @Override
+    public CSObj getCSObj(Context heapContext, Obj obj) {
+        CSObj csObj = delegate.getCSObj(heapContext, obj);
+        if (csObj.getIndex() == -1) {
+            objIndexer.add(csObj);
+        }
+        return csObj;
+    }
+
+    @Override
+    public CSCallSite getCSCallSite(Context context, Invoke callSite) {
+        return delegate.getCSCallSite(context, callSite);
+    }
+
+    @Override
+    public CSMethod getCSMethod(Context context, JMethod method) {
+        return delegate.getCSMethod(context, method);
+    }
+
+    @Override
+    public StaticField getStaticField(JField field) {
+        return delegate.getStaticField(field);
+    }
+
+    @Override
+    public InstanceField getInstanceField(CSObj base, JField field) {
+        return delegate.getInstanceField(base, field);
+    }
+
+    @Override
+    public ArrayIndex getArrayIndex(CSObj array) {
+        return delegate.getArrayIndex(array);
+    }
+
+    @Override
+    public Indexer<CSObj> getObjectIndexer() {
+        return objIndexer;
+    }
+
+    @Override
+    public Collection<Var> getVars() {
+        return delegate.getVars();
+    }
+
+    @Override
+    public Collection<CSVar> getCSVarsOf(Var var) {
+        return delegate.getCSVarsOf(var);
+    }
+
+    @Override
+    public Collection<CSVar> getCSVars() {
+        return delegate.getCSVars();
+    }
+
+    @Override
+    public Collection<CSObj> getObjects() {
+        return delegate.getObjects();
+    }
+
+    @Override
+    public Collection<StaticField> getStaticFields() {
+        return delegate.getStaticFields();
+    }
+
+    @Override
+    public Collection<InstanceField> getInstanceFields() {
+        return delegate.getInstanceFields();
+    }
+
+    @Override
+    public Collection<ArrayIndex> getArrayIndexes() {
+        return delegate.getArrayIndexes();
+    }
+
+    private static class ObjIndexer implements Indexer<CSObj> {
+
+        private final List<CSObj> objs = new ArrayList<>();
+
+        private void add(CSObj csObj) {
+            csObj.setIndex(objs.size());
+            objs.add(csObj);
+        }
+
+        @Override
+        public int getIndex(CSObj o) {
+            return o.getIndex();
+        }
+
+        @Override
+        public CSObj getObject(int index) {
+            return objs.get(index);
+        }
+    }
+}
@@ -23,13 +23,27 @@
 package pascal.taie.analysis.pta.cs;
 
 import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.analysis.pta.pts.PointsToSetFactory;
 import pascal.taie.util.collection.Maps;
 import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
  * Represents pointer flow graph in context-sensitive pointer analysis.
+ * <p>
+ * When cycle elimination is enabled, this PFG supports online collapsing
+ * of copy cycles via lazy cycle detection: all pointers in a strongly
+ * connected component are merged into a representative and share one
+ * points-to set, so that objects are no longer sent around the cycle.
  */
 class PointerFlowGraph {
 
@@ -38,6 +52,41 @@ class PointerFlowGraph {
      */
     private final MultiMap<Pointer, Pointer> successors = Maps.newMultiMap();
 
+    /**
+     * Whether cycle elimination is enabled.
+     */
+    private final boolean cycleElim;
+
+    /**
+     * Map from a collapsed pointer to the pointer it has been merged into.
+     * Following the map from any pointer leads to its representative.
+     */
+    private final Map<Pointer, Pointer> parents = Maps.newMap();
+
+    /**
+     * Map from a representative to all pointers it represents
+     * (excluding itself).
+     */
+    private final MultiMap<Pointer, Pointer> members = Maps.newMultiMap();
+
+    /**
+     * Edges that have been checked by lazy cycle detection.
+     * Each edge is checked at most once.
+     */
+    private final MultiMap<Pointer, Pointer> checkedEdges = Maps.newMultiMap();
+
+    /**
+     * Number of pointers that have been merged into other pointers.
+     */
+    private int collapsedNodes = 0;
+
+    /**
+     * @param cycleElim whether cycle elimination is enabled.
+     */
+    PointerFlowGraph(boolean cycleElim) {
+        this.cycleElim = cycleElim;
+    }
+
     /**
      * Adds an edge (source -> target) to this PFG.
      *
@@ -45,13 +94,200 @@ class PointerFlowGraph {
      * otherwise false.
      */
     boolean addEdge(Pointer source, Pointer target) {
+        if (cycleElim) {
+            source = getRepresentative(source);
+            if (source == getRepresentative(target)) {
+                // source and target share one points-to set
+                return false;
+            }
+        }
         return successors.put(source, target);
     }
 
     /**
      * @return successors of given pointer in the PFG.
+     * If the pointer has been collapsed, returns the successors of
+     * its representative, which may include the pointers that have
+     * been collapsed afterwards.
      */
     Set<Pointer> getSuccsOf(Pointer pointer) {
-        return successors.get(pointer);
+        return successors.get(cycleElim ? getRepresentative(pointer) : pointer);
+    }
+
+    /**
+     * @return the representative of given pointer, i.e., the pointer
+     * into which given pointer has been merged, or the pointer itself
+     * if it has not been collapsed.
+     */
+    Pointer getRepresentative(Pointer pointer) {
+        Pointer rep = pointer;
+        Pointer parent;
+        while ((parent = parents.get(rep)) != null) {
+            rep = parent;
+        }
+        // path compression
+        while (pointer != rep) {
+            Pointer next = parents.put(pointer, rep);
+            pointer = next;
+        }
+        return rep;
+    }
+
+    /**
+     * @return all pointers that share the points-to set with given pointer
+     * (including itself). When objects are newly added to the shared
+     * points-to set, the solver should process the statements relevant
+     * to each of these pointers.
+     */
+    Set<Pointer> getMembersOf(Pointer pointer) {
+        if (!cycleElim) {
+            return Set.of(pointer);
+        }
+        Pointer rep = getRepresentative(pointer);
+        Set<Pointer> reps = members.get(rep);
+        if (reps.isEmpty()) {
+            return Set.of(rep);
+        }
+        Set<Pointer> result = Sets.newHybridSet(reps);
+        result.add(rep);
+        return result;
+    }
+
+    /**
+     * Lazy cycle detection. The solver should call this method when it
+     * propagates objects along edge (source -> target) and the propagation
+     * does not change points-to set of target, which is a sign that
+     * source and target are on a cycle. Every edge is checked at most once.
+     * <p>
+     * If cycles are found, the pointers in each cycle are merged into
+     * a representative, and all of them share a new, empty points-to set.
+     * The solver should then propagate the returned points-to set to
+     * the representative of target, so that the statements relevant to
+     * the collapsed pointers and their successors are (re)processed
+     * with the merged objects.
+     *
+     * @return the union of the points-to sets of the collapsed pointers,
+     * or null if no cycle is collapsed.
+     */
+    PointsToSet detectCycle(Pointer source, Pointer target) {
+        if (!cycleElim) {
+            return null;
+        }
+        source = getRepresentative(source);
+        target = getRepresentative(target);
+        if (source == target || !checkedEdges.put(source, target)) {
+            return null;
+        }
+        PointsToSet merged = null;
+        for (List<Pointer> scc : findSCCs(target)) {
+            PointsToSet pts = collapse(scc);
+            if (merged == null) {
+                merged = pts;
+            } else {
+                merged.addAll(pts);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * @return number of pointers that have been merged into other pointers.
+     */
+    int getCollapsedNodes() {
+        return collapsedNodes;
+    }
+
+    /**
+     * Finds non-trivial strongly connected components that are reachable
+     * from given pointer, by iterative Tarjan's algorithm on the graph
+     * of representatives.
+     */
+    private List<List<Pointer>> findSCCs(Pointer root) {
+        List<List<Pointer>> sccs = new ArrayList<>();
+        Map<Pointer, Integer> indexes = Maps.newMap();
+        Map<Pointer, Integer> lowLinks = Maps.newMap();
+        Deque<Pointer> stack = new ArrayDeque<>();
+        Set<Pointer> onStack = Sets.newSet();
+        Deque<Pointer> nodes = new ArrayDeque<>();
+        Deque<Iterator<Pointer>> succIters = new ArrayDeque<>();
+        indexes.put(root, 0);
+        lowLinks.put(root, 0);
+        stack.push(root);
+        onStack.add(root);
+        nodes.push(root);
+        succIters.push(successors.get(root).iterator());
+        while (!nodes.isEmpty()) {
+            Pointer node = nodes.peek();
+            Iterator<Pointer> it = succIters.peek();
+            if (it.hasNext()) {
+                Pointer succ = getRepresentative(it.next());
+                if (!indexes.containsKey(succ)) {
+                    int index = indexes.size();
+                    indexes.put(succ, index);
+                    lowLinks.put(succ, index);
+                    stack.push(succ);
+                    onStack.add(succ);
+                    nodes.push(succ);
+                    succIters.push(successors.get(succ).iterator());
+                } else if (onStack.contains(succ)) {
+                    lowLinks.put(node, Math.min(lowLinks.get(node), indexes.get(succ)));
+                }
+            } else {
+                nodes.pop();
+                succIters.pop();
+                int lowLink = lowLinks.get(node);
+                if (!nodes.isEmpty()) {
+                    Pointer parent = nodes.peek();
+                    lowLinks.put(parent, Math.min(lowLinks.get(parent), lowLink));
+                }
+                if (lowLink == indexes.get(node)) {
+                    List<Pointer> scc = new ArrayList<>();
+                    Pointer p;
+                    do {
+                        p = stack.pop();
+                        onStack.remove(p);
+                        scc.add(p);
+                    } while (p != node);
+                    if (scc.size() > 1) {
+                        sccs.add(scc);
+                    }
+                }
+            }
+        }
+        return sccs;
+    }
+
+    /**
+     * Merges the pointers (representatives) in given SCC into one.
+     *
+     * @return the union of the points-to sets of the merged pointers.
+     */
+    private PointsToSet collapse(List<Pointer> scc) {
+        Pointer rep = scc.get(0);
+        PointsToSet union = PointsToSetFactory.make();
+        PointsToSet shared = PointsToSetFactory.make();
+        for (Pointer pointer : scc) {
+            if (pointer.getPointsToSet() != null) {
+                union.addAll(pointer.getPointsToSet());
+            }
+            pointer.setPointsToSet(shared);
+            // pointers merged into this one by earlier collapses
+            Set<Pointer> oldMembers = members.get(pointer);
+            oldMembers.forEach(member -> member.setPointsToSet(shared));
+            if (pointer != rep) {
+                parents.put(pointer, rep);
+                successors.putAll(rep, List.copyOf(successors.get(pointer)));
+                successors.removeAll(pointer);
+                members.put(rep, pointer);
+                members.putAll(rep, List.copyOf(oldMembers));
+                members.removeAll(pointer);
+                ++collapsedNodes;
+            }
+        }
+        // edges inside the collapsed cycle become self-loops
+        successors.removeAll(rep, successors.get(rep).stream()
+                .filter(succ -> getRepresentative(succ) == rep)
+                .toList());
+        return union;
     }
 }
@@ -32,23 +32,26 @@ import pascal.taie.analysis.pta.PointerAnalysisResult;
 import pascal.taie.analysis.pta.PointerAnalysisResultImpl;
 import pascal.taie.analysis.pta.core.cs.CSCallGraph;
 import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.cs.element.ArrayBasedCSManager;
 import pascal.taie.analysis.pta.core.cs.element.ArrayIndex;
 import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
 import pascal.taie.analysis.pta.core.cs.element.CSManager;
 import pascal.taie.analysis.pta.core.cs.element.CSMethod;
 import pascal.taie.analysis.pta.core.cs.element.CSObj;
 import pascal.taie.analysis.pta.core.cs.element.CSVar;
+import pascal.taie.analysis.pta.core.cs.element.IndexedCSManager;
 import pascal.taie.analysis.pta.core.cs.element.InstanceField;
-import pascal.taie.analysis.pta.core.cs.element.MapBasedCSManager;
 import pascal.taie.analysis.pta.core.cs.element.Pointer;
 import pascal.taie.analysis.pta.core.cs.element.StaticField;
 import pascal.taie.analysis.pta.core.cs.selector.ContextSelector;
 import pascal.taie.analysis.pta.core.heap.HeapModel;
 import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.analysis.pta.plugin.ResultProcessor;
 import pascal.taie.analysis.pta.plugin.taint.TaintAnalysiss;
 import pascal.taie.analysis.pta.pts.PointsToSet;
 import pascal.taie.analysis.pta.pts.PointsToSetFactory;
 import pascal.taie.config.AnalysisOptions;
+import pascal.taie.config.ConfigException;
 import pascal.taie.ir.exp.InvokeExp;
 import pascal.taie.ir.exp.Var;
 import pascal.taie.ir.stmt.Copy;
@@ -107,14 +110,21 @@ public class Solver {
     void solve() {
         initialize();
         analyze();
+        if (options.getBooleanOrDefault("cycle-elim", false)) {
+            getResult().storeResult(ResultProcessor.COLLAPSED_NODES,
+                    pointerFlowGraph.getCollapsedNodes());
+        }
         taintAnalysis.onFinish();
     }
 
     private void initialize() {
-        csManager = new MapBasedCSManager();
+        boolean cycleElim = options.getBooleanOrDefault("cycle-elim", false);
+        csManager = makeCSManager();
+        PointsToSetFactory.setImplementation(options.getString("pts-impl"),
+                csManager.getObjectIndexer());
         callGraph = new CSCallGraph(csManager);
-        pointerFlowGraph = new PointerFlowGraph();
-        workList = new WorkList();
+        pointerFlowGraph = new PointerFlowGraph(cycleElim);
+        workList = new WorkList(options.getBooleanOrDefault("merge-deltas", false));
         taintAnalysis = new TaintAnalysiss(this);
         // process program entry, i.e., main method
         Context defContext = contextSelector.getEmptyContext();
@@ -124,6 +134,20 @@ public class Solver {
         addReachable(csMethod);
     }
 
+    /**
+     * @return the CS manager specified by option cs-manager.
+     */
+    private CSManager makeCSManager() {
+        String impl = options.getString("cs-manager");
+        if (impl == null || impl.equals("map")) {
+            return new IndexedCSManager();
+        } else if (impl.equals("array")) {
+            return new ArrayBasedCSManager();
+        } else {
+            throw new ConfigException("Unexpected CS manager implementation: " + impl);
+        }
+    }
+
     /**
      * Processes new reachable context-sensitive method.
      */
@@ -166,6 +190,10 @@ public class Solver {
     /**
      * Propagates pointsToSet to pt(pointer) and its PFG successors,
      * returns the difference set of pointsToSet and pt(pointer).
+     * If cycle elimination is enabled, propagation along an edge
+     * that adds nothing to the target should trigger
+     * {@link PointerFlowGraph#detectCycle}, and the statements relevant to
+     * pointer should be processed for all {@link PointerFlowGraph#getMembersOf}.
      */
     private PointsToSet propagate(Pointer pointer, PointsToSet pointsToSet) {
         // TODO - finish me
@@ -24,8 +24,12 @@ package pascal.taie.analysis.pta.cs;
 
 import pascal.taie.analysis.pta.core.cs.element.Pointer;
 import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.analysis.pta.pts.PointsToSetFactory;
 
 import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Queue;
 
 /**
@@ -35,11 +39,38 @@ class WorkList {
 
     private final Queue<Entry> entries = new ArrayDeque<>();
 
+    /**
+     * Whether the pending points-to sets of the same pointer are merged.
+     * If so, each pointer appears in this work list at most once, and
+     * its entry holds the union of all points-to sets added for it
+     * since it was last polled.
+     */
+    private final boolean mergeDeltas;
+
+    /**
+     * Map from pointers to their pending points-to sets, in insertion
+     * order. Only used when {@link #mergeDeltas} is true.
+     */
+    private final Map<Pointer, Delta> deltas = new LinkedHashMap<>();
+
+    WorkList(boolean mergeDeltas) {
+        this.mergeDeltas = mergeDeltas;
+    }
+
     /**
      * Adds an entry to the work list.
      */
     void addEntry(Pointer pointer, PointsToSet pointsToSet) {
-        entries.add(new Entry(pointer, pointsToSet));
+        if (mergeDeltas) {
+            Delta delta = deltas.get(pointer);
+            if (delta == null) {
+                deltas.put(pointer, new Delta(pointsToSet));
+            } else {
+                delta.merge(pointsToSet);
+            }
+        } else {
+            entries.add(new Entry(pointer, pointsToSet));
+        }
     }
 
     /**
@@ -47,14 +78,24 @@ class WorkList {
      * if this work list is empty.
      */
     Entry pollEntry() {
-        return entries.poll();
+        if (mergeDeltas) {
+            Iterator<Map.Entry<Pointer, Delta>> it = deltas.entrySet().iterator();
+            if (!it.hasNext()) {
+                return null;
+            }
+            Map.Entry<Pointer, Delta> first = it.next();
+            it.remove();
+            return new Entry(first.getKey(), first.getValue().pointsToSet);
+        } else {
+            return entries.poll();
+        }
     }
 
     /**
      * @return true if the work list is empty, otherwise false.
      */
     boolean isEmpty() {
-        return entries.isEmpty();
+        return mergeDeltas ? deltas.isEmpty() : entries.isEmpty();
     }
 
     /**
@@ -63,4 +104,31 @@ class WorkList {
      */
     record Entry(Pointer pointer, PointsToSet pointsToSet) {
     }
+
+    /**
+     * Pending points-to set of a pointer in merge mode.
+     * The first added points-to set is kept as is, as it may be shared
+     * with other parts of the analysis; it is copied only when another
+     * points-to set has to be merged into it.
+     */
+    private static class Delta {
+
+        private PointsToSet pointsToSet;
+
+        private boolean owned = false;
+
+        private Delta(PointsToSet pointsToSet) {
+            this.pointsToSet = pointsToSet;
+        }
+
+        private void merge(PointsToSet other) {
+            if (!owned) {
+                PointsToSet copy = PointsToSetFactory.make();
+                copy.addAll(pointsToSet);
+                pointsToSet = copy;
+                owned = true;
+            }
+            pointsToSet.addAll(other);
+        }
+    }
 }
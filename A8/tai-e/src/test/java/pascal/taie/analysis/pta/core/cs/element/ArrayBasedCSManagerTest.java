@@ -0,0 +1,254 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.cs.element;
+
+import org.junit.Before;
+import org.junit.Test;
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.cs.context.ListContext;
+import pascal.taie.analysis.pta.core.heap.MockObj;
+import pascal.taie.analysis.pta.pts.PointsToSetFactory;
+import pascal.taie.ir.exp.InvokeStatic;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.proginfo.MethodRef;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.annotation.AnnotationHolder;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.NullType;
+import pascal.taie.language.type.VoidType;
+import pascal.taie.util.Indexer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ArrayBasedCSManagerTest {
+
+    /**
+     * Context that is not {@link pascal.taie.util.Indexable},
+     * so that the manager has to intern it.
+     */
+    private record PlainContext(String element) implements Context {
+
+        @Override
+        public int getLength() {
+            return 1;
+        }
+
+        @Override
+        public Object getElementAt(int i) {
+            return element;
+        }
+    }
+
+    private static final JClass CLASS = new JClass(null, "Test");
+
+    private ArrayBasedCSManager csManager;
+
+    @Before
+    public void setUp() {
+        csManager = new ArrayBasedCSManager();
+        PointsToSetFactory.setImplementation("hybrid", csManager.getObjectIndexer());
+    }
+
+    private static JMethod method(String name) {
+        return new JMethod(CLASS, name, Set.of(), List.of(), VoidType.VOID,
+                List.of(), AnnotationHolder.emptyHolder(), null, null);
+    }
+
+    private static JField field(String name) {
+        return new JField(CLASS, name, Set.of(), NullType.NULL,
+                AnnotationHolder.emptyHolder());
+    }
+
+    private static List<Var> vars(JMethod method, int n) {
+        List<Var> vars = new ArrayList<>(n);
+        for (int i = 0; i < n; ++i) {
+            vars.add(new Var(method, "v" + i, NullType.NULL, i));
+        }
+        return vars;
+    }
+
+    private static MockObj obj(String name) {
+        return new MockObj("test", name, NullType.NULL);
+    }
+
+    @Test
+    public void testCSVars() {
+        JMethod m1 = method("m1");
+        JMethod m2 = method("m2");
+        List<Var> vars1 = vars(m1, 3);
+        List<Var> vars2 = vars(m2, 20);
+        Context empty = ListContext.make();
+        Context c1 = ListContext.make("a");
+        Context c2 = new PlainContext("b");
+        CSVar v = csManager.getCSVar(c1, vars1.get(0));
+        assertSame(v, csManager.getCSVar(c1, vars1.get(0)));
+        assertSame(c1, v.getContext());
+        assertSame(vars1.get(0), v.getVar());
+        assertNotNull(v.getPointsToSet());
+        // same index in another method, and another context
+        CSVar w = csManager.getCSVar(c1, vars2.get(0));
+        assertNotSame(v, w);
+        CSVar v2 = csManager.getCSVar(c2, vars1.get(0));
+        assertNotSame(v, v2);
+        assertSame(v2, csManager.getCSVar(new PlainContext("b"), vars1.get(0)));
+        CSVar x = csManager.getCSVar(empty, vars2.get(19));
+        assertEquals(List.of(v, v2), List.copyOf(csManager.getCSVarsOf(vars1.get(0))));
+        assertEquals(List.of(x), List.copyOf(csManager.getCSVarsOf(vars2.get(19))));
+        assertTrue(csManager.getCSVarsOf(vars1.get(2)).isEmpty());
+        assertTrue(csManager.getCSVarsOf(new Var(m1, "v100", NullType.NULL, 100)).isEmpty());
+        assertEquals(List.of(vars1.get(0), vars2.get(0), vars2.get(19)),
+                List.copyOf(csManager.getVars()));
+        assertEquals(List.of(v, w, v2, x), List.copyOf(csManager.getCSVars()));
+    }
+
+    @Test
+    public void testManyContexts() {
+        // more contexts than ContextMap scans linearly
+        Var var = vars(method("m"), 1).get(0);
+        List<Context> contexts = new ArrayList<>();
+        List<CSVar> csVars = new ArrayList<>();
+        for (int i = 0; i < 100; ++i) {
+            Context context = i % 2 == 0
+                    ? ListContext.make("c", i)
+                    : new PlainContext("c" + i);
+            contexts.add(context);
+            csVars.add(csManager.getCSVar(context, var));
+        }
+        for (int i = 0; i < contexts.size(); ++i) {
+            assertSame(csVars.get(i), csManager.getCSVar(contexts.get(i), var));
+        }
+        assertEquals(csVars, List.copyOf(csManager.getCSVarsOf(var)));
+    }
+
+    @Test
+    public void testCSObjs() {
+        Context c1 = ListContext.make("a");
+        Context c2 = ListContext.make("a", "b");
+        List<CSObj> csObjs = new ArrayList<>();
+        for (int i = 0; i < 10; ++i) {
+            csObjs.add(csManager.getCSObj(c1, obj("o" + i)));
+            csObjs.add(csManager.getCSObj(c2, obj("o" + i)));
+        }
+        Indexer<CSObj> indexer = csManager.getObjectIndexer();
+        for (int i = 0; i < csObjs.size(); ++i) {
+            CSObj csObj = csObjs.get(i);
+            // objects are indexed densely in creation order
+            assertEquals(i, csObj.getIndex());
+            assertEquals(i, indexer.getIndex(csObj));
+            assertSame(csObj, indexer.getObject(i));
+            assertSame(csObj, csManager.getCSObj(csObj.getContext(), csObj.getObject()));
+        }
+        assertEquals(csObjs, List.copyOf(csManager.getObjects()));
+    }
+
+    @Test
+    public void testFieldsAndArrays() {
+        JField f = field("f");
+        JField g = field("g");
+        StaticField sf = csManager.getStaticField(f);
+        assertSame(sf, csManager.getStaticField(f));
+        assertEquals(List.of(sf), List.copyOf(csManager.getStaticFields()));
+        CSObj o1 = csManager.getCSObj(ListContext.make(), obj("o1"));
+        CSObj o2 = csManager.getCSObj(ListContext.make(), obj("o2"));
+        InstanceField o2g = csManager.getInstanceField(o2, g);
+        InstanceField o1f = csManager.getInstanceField(o1, f);
+        assertSame(o2g, csManager.getInstanceField(o2, g));
+        assertSame(o1, o1f.getBase());
+        assertSame(f, o1f.getField());
+        assertNotSame(o1f, csManager.getInstanceField(o2, f));
+        assertEquals(3, csManager.getInstanceFields().size());
+        ArrayIndex a1 = csManager.getArrayIndex(o1);
+        assertSame(a1, csManager.getArrayIndex(o1));
+        assertSame(o1, a1.getArray());
+        assertEquals(List.of(a1), List.copyOf(csManager.getArrayIndexes()));
+    }
+
+    @Test
+    public void testCallSitesAndMethods() {
+        JMethod caller = method("caller");
+        MethodRef ref = MethodRef.get(CLASS, "callee", List.of(), VoidType.VOID, true);
+        Invoke call = new Invoke(caller, new InvokeStatic(ref, List.of()));
+        call.setIndex(5);
+        Context c1 = ListContext.make("a");
+        Context c2 = new PlainContext("b");
+        CSCallSite cs1 = csManager.getCSCallSite(c1, call);
+        assertSame(cs1, csManager.getCSCallSite(c1, call));
+        assertNotSame(cs1, csManager.getCSCallSite(c2, call));
+        assertSame(call, cs1.getCallSite());
+        CSMethod m1 = csManager.getCSMethod(c1, caller);
+        assertSame(m1, csManager.getCSMethod(c1, caller));
+        assertNotSame(m1, csManager.getCSMethod(c2, caller));
+        assertSame(caller, m1.getMethod());
+    }
+
+    /**
+     * Checks the lookups against {@link IndexedCSManager}
+     * with random variables, contexts and objects.
+     */
+    @Test
+    public void testAgainstIndexedCSManager() {
+        CSManager expected = new IndexedCSManager();
+        Random random = new Random(0);
+        List<Var> vars = new ArrayList<>();
+        for (int i = 0; i < 5; ++i) {
+            vars.addAll(vars(method("m" + i), 10));
+        }
+        for (int step = 0; step < 2000; ++step) {
+            Context context = random.nextBoolean()
+                    ? ListContext.make(random.nextInt(20))
+                    : new PlainContext("c" + random.nextInt(20));
+            if (random.nextBoolean()) {
+                Var var = vars.get(random.nextInt(vars.size()));
+                csManager.getCSVar(context, var);
+                expected.getCSVar(context, var);
+            } else {
+                MockObj obj = obj("o" + random.nextInt(30));
+                CSObj csObj = csManager.getCSObj(context, obj);
+                CSObj expectedObj = expected.getCSObj(context, obj);
+                assertEquals(expectedObj.getIndex(), csObj.getIndex());
+            }
+        }
+        for (Var var : vars) {
+            assertEquals(
+                    expected.getCSVarsOf(var).stream()
+                            .map(CSVar::getContext).collect(Collectors.toSet()),
+                    csManager.getCSVarsOf(var).stream()
+                            .map(CSVar::getContext).collect(Collectors.toSet()));
+        }
+        assertEquals(expected.getVars().size(), csManager.getVars().size());
+        assertEquals(expected.getCSVars().size(), csManager.getCSVars().size());
+        assertEquals(expected.getObjects().size(), csManager.getObjects().size());
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.pts;
+
+import org.junit.Before;
+import org.junit.Test;
+import pascal.taie.analysis.pta.core.cs.context.ListContext;
+import pascal.taie.analysis.pta.core.cs.element.CSManager;
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.core.cs.element.IndexedCSManager;
+import pascal.taie.analysis.pta.core.heap.MockObj;
+import pascal.taie.language.type.NullType;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BitVectorPointsToSetTest {
+
+    /**
+     * Number of objects, spanning several words so that merges
+     * across word boundaries and insertions of new words are covered.
+     */
+    private static final int SIZE = 300;
+
+    private final List<CSObj> objs = new ArrayList<>(SIZE);
+
+    private CSManager csManager;
+
+    @Before
+    public void setUp() {
+        csManager = new IndexedCSManager();
+        for (int i = 0; i < SIZE; ++i) {
+            objs.add(csManager.getCSObj(ListContext.make(), new MockObj("test", "o" + i, NullType.NULL)));
+        }
+        PointsToSetFactory.setImplementation("hybrid", csManager.getObjectIndexer());
+    }
+
+    private BitVectorPointsToSet bitVector(int... indexes) {
+        BitVectorPointsToSet pts = new BitVectorPointsToSet(csManager.getObjectIndexer());
+        for (int i : indexes) {
+            pts.addObject(objs.get(i));
+        }
+        return pts;
+    }
+
+    private Set<CSObj> objsOf(int... indexes) {
+        Set<CSObj> set = Sets.newSet();
+        for (int i : indexes) {
+            set.add(objs.get(i));
+        }
+        return set;
+    }
+
+    @Test
+    public void testUnion() {
+        BitVectorPointsToSet pts = bitVector(0, 200);
+        // new words before, between and after the existing ones
+        assertTrue(pts.addAll(bitVector(1, 64, 130, 299)));
+        assertEquals(objsOf(0, 1, 64, 130, 200, 299), pts.getObjects());
+        assertEquals(6, pts.size());
+        assertFalse(pts.addAll(bitVector(1, 130)));
+        assertFalse(pts.addAll(bitVector()));
+        // union into an empty set
+        BitVectorPointsToSet empty = bitVector();
+        assertTrue(empty.addAll(pts));
+        assertEquals(pts.getObjects(), empty.getObjects());
+    }
+
+    @Test
+    public void testUnionGrowth() {
+        // each union adds more words than the set can hold in place
+        BitVectorPointsToSet pts = bitVector(0);
+        for (int i = 64; i < SIZE; i += 64) {
+            assertTrue(pts.addAll(bitVector(i - 1, i, i + 1)));
+        }
+        assertEquals(1 + 3 * ((SIZE - 1) / 64), pts.size());
+        for (int i = 64; i < SIZE; i += 64) {
+            assertTrue(pts.contains(objs.get(i - 1)));
+            assertTrue(pts.contains(objs.get(i)));
+            assertTrue(pts.contains(objs.get(i + 1)));
+        }
+    }
+
+    @Test
+    public void testAddAllDiff() {
+        BitVectorPointsToSet pts = bitVector(0, 63, 200);
+        PointsToSet diff = pts.addAllDiff(bitVector(0, 64, 199, 200, 250));
+        assertEquals(objsOf(64, 199, 250), diff.getObjects());
+        assertEquals(3, diff.size());
+        assertEquals(objsOf(0, 63, 64, 199, 200, 250), pts.getObjects());
+        // the diff is independent of the set it was computed from
+        diff.addObject(objs.get(1));
+        assertFalse(pts.contains(objs.get(1)));
+        assertTrue(pts.addAllDiff(bitVector(0, 64)).isEmpty());
+    }
+
+    @Test
+    public void testSelfUnion() {
+        BitVectorPointsToSet pts = bitVector(3, 70, 140);
+        assertFalse(pts.addAll(pts));
+        assertTrue(pts.addAllDiff(pts).isEmpty());
+        assertEquals(objsOf(3, 70, 140), pts.getObjects());
+        assertEquals(3, pts.size());
+    }
+
+    @Test
+    public void testMixedWithHybrid() {
+        BitVectorPointsToSet pts = bitVector(5);
+        PointsToSet hybrid = PointsToSetFactory.make();
+        hybrid.addObject(objs.get(5));
+        hybrid.addObject(objs.get(100));
+        PointsToSet diff = pts.addAllDiff(hybrid);
+        assertEquals(objsOf(100), diff.getObjects());
+        assertEquals(objsOf(5, 100), pts.getObjects());
+        assertTrue(hybrid.addAll(bitVector(6)));
+        assertEquals(objsOf(5, 6, 100), hybrid.getObjects());
+    }
+
+    /**
+     * Applies the same random merges to bit-vector sets and hash sets,
+     * and checks that they always agree.
+     */
+    @Test
+    public void testAgainstHashSet() {
+        Random random = new Random(0);
+        for (int round = 0; round < 100; ++round) {
+            BitVectorPointsToSet pts = bitVector();
+            Set<CSObj> expected = Sets.newSet();
+            for (int step = 0; step < 20; ++step) {
+                BitVectorPointsToSet other = bitVector();
+                int n = random.nextInt(20);
+                for (int i = 0; i < n; ++i) {
+                    other.addObject(objs.get(random.nextInt(SIZE)));
+                }
+                if (random.nextBoolean()) {
+                    Set<CSObj> added = Sets.newSet();
+                    added.addAll(other.getObjects());
+                    added.removeAll(expected);
+                    assertEquals(added, pts.addAllDiff(other).getObjects());
+                    expected.addAll(added);
+                } else {
+                    assertEquals(expected.addAll(other.getObjects()), pts.addAll(other));
+                }
+                assertEquals(expected, pts.getObjects());
+                assertEquals(expected.size(), pts.size());
+                int last = -1;
+                for (CSObj obj : pts) {
+                    // objects are iterated in the order of their indexes
+                    assertTrue(obj.getIndex() > last);
+                    last = obj.getIndex();
+                }
+            }
+        }
+    }
+}